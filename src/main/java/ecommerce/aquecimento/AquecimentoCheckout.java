@@ -0,0 +1,162 @@
+package ecommerce.aquecimento;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ecommerce.dto.CarrinhoCheckoutDTO;
+import ecommerce.dto.CompraDTO;
+import ecommerce.dto.CustoCompraDTO;
+import ecommerce.entity.CarrinhoDeCompras;
+import ecommerce.entity.Cliente;
+import ecommerce.entity.ItemCompra;
+import ecommerce.entity.Produto;
+import ecommerce.entity.TipoCliente;
+import ecommerce.entity.TipoProduto;
+import ecommerce.external.LoteEstoque;
+import ecommerce.service.CompraService;
+import ecommerce.vendas.AgregadosVendas;
+import ecommerce.vendas.TotaisVendas;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+
+// Aquece o JIT antes de a aplicação receber tráfego, passando carrinhos sintéticos (todos os tipos de
+// cliente, faixas de peso e faixas de desconto) pelo trecho do checkout que é só CPU, nos beans reais:
+// conversão para CarrinhoCheckoutDTO, LoteEstoque, calcularCusto/calcularCustoTotal, rateio dos
+// agregados de vendas (num TotaisVendas descartável) e serialização JSON do CompraDTO. Não cobre
+// carregamento no banco, clientes Feign, eventos nem gravação: essas etapas dependem de I/O e
+// aquecem com o tráfego real. Como ApplicationRunner, bloqueia o ApplicationReadyEvent: a readiness
+// do actuator só fica UP depois do aquecimento ou do fim do orçamento de tempo.
+@Component
+public class AquecimentoCheckout implements ApplicationRunner {
+
+	private static final Logger log = LoggerFactory.getLogger(AquecimentoCheckout.class);
+
+	// Pesos totais e valores brutos que caem em cada faixa de frete e de desconto
+	private static final int[] PESOS = { 3, 7, 30, 60 };
+	private static final int[] VALORES = { 300, 700, 1500 };
+
+	private final CompraService compraService;
+	private final ObjectMapper objectMapper;
+
+	private final boolean habilitado;
+	private final int rodadas;
+	private final long orcamentoMs;
+
+	private final AtomicLong duracaoMs = new AtomicLong();
+	private final AtomicLong carrinhos = new AtomicLong();
+	private long sumidouro;
+
+	@Autowired
+	public AquecimentoCheckout(CompraService compraService, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+			@Value("${compra.aquecimento.enabled:true}") boolean habilitado,
+			@Value("${compra.aquecimento.rodadas:500}") int rodadas,
+			@Value("${compra.aquecimento.orcamento-ms:10000}") long orcamentoMs) {
+		this.compraService = compraService;
+		this.objectMapper = objectMapper;
+		this.habilitado = habilitado;
+		this.rodadas = rodadas;
+		this.orcamentoMs = orcamentoMs;
+
+		TimeGauge.builder("compra.aquecimento.duracao", duracaoMs, TimeUnit.MILLISECONDS, AtomicLong::get)
+				.description("Duração do aquecimento do JIT na subida")
+				.register(meterRegistry);
+		Gauge.builder("compra.aquecimento.carrinhos", carrinhos, AtomicLong::get)
+				.description("Carrinhos sintéticos processados no aquecimento")
+				.register(meterRegistry);
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		if (!habilitado) {
+			return;
+		}
+		aquecer();
+	}
+
+	// Retorna true quando todas as rodadas foram executadas dentro do orçamento
+	public boolean aquecer() {
+		List<CarrinhoDeCompras> sinteticos = carrinhosSinteticos();
+		TotaisVendas rascunho = new TotaisVendas();
+
+		long inicio = System.nanoTime();
+		long limite = inicio + TimeUnit.MILLISECONDS.toNanos(orcamentoMs);
+		int rodada = 0;
+		try {
+			while (rodada < rodadas && System.nanoTime() - limite < 0) {
+				for (CarrinhoDeCompras carrinho : sinteticos) {
+					sumidouro += processar(carrinho, rascunho);
+				}
+				rodada++;
+				carrinhos.addAndGet(sinteticos.size());
+			}
+		} catch (JsonProcessingException e) {
+			log.warn("Aquecimento do checkout interrompido: {}", e.getMessage());
+		}
+
+		long duracao = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+		duracaoMs.set(duracao);
+		boolean completo = rodada == rodadas;
+		log.info("Aquecimento do checkout {} em {} ms: {} rodadas, {} carrinhos sintéticos",
+				completo ? "concluído" : "interrompido", duracao, rodada, carrinhos.get());
+		return completo;
+	}
+
+	private long processar(CarrinhoDeCompras carrinho, TotaisVendas rascunho) throws JsonProcessingException {
+		CarrinhoCheckoutDTO checkout = CarrinhoCheckoutDTO.de(carrinho);
+		LoteEstoque lote = LoteEstoque.deCarrinho(checkout);
+		CustoCompraDTO custo = compraService.calcularCusto(checkout);
+		AgregadosVendas.acumular(checkout, custo, rascunho, null);
+		byte[] resposta = objectMapper.writeValueAsBytes(
+				new CompraDTO(true, checkout.carrinhoId(), "Compra finalizada com sucesso."));
+
+		return lote.tamanho() + resposta.length
+				+ compraService.calcularCustoTotal(carrinho).unscaledValue().longValue();
+	}
+
+	public long getDuracaoMs() {
+		return duracaoMs.get();
+	}
+
+	public long getCarrinhos() {
+		return carrinhos.get();
+	}
+
+	// Um carrinho por combinação de tipo de cliente, faixa de peso e faixa de valor, com tipos de produto variados
+	static List<CarrinhoDeCompras> carrinhosSinteticos() {
+		List<CarrinhoDeCompras> carrinhos = new ArrayList<>();
+		TipoProduto[] tiposProduto = TipoProduto.values();
+		long id = 1;
+		for (TipoCliente tipoCliente : TipoCliente.values()) {
+			Cliente cliente = new Cliente(id, "aquecimento", "aquecimento", tipoCliente);
+			for (int peso : PESOS) {
+				for (int valor : VALORES) {
+					Produto principal = new Produto(id, "aquecimento", "aquecimento", BigDecimal.valueOf(valor - 100),
+							peso - 1, tiposProduto[(int) (id % tiposProduto.length)]);
+					Produto complemento = new Produto(id + 1, "aquecimento", "aquecimento", BigDecimal.valueOf(100), 1,
+							tiposProduto[(int) ((id + 1) % tiposProduto.length)]);
+					List<ItemCompra> itens = List.of(new ItemCompra(id, principal, 1L),
+							new ItemCompra(id + 1, complemento, 1L));
+					carrinhos.add(new CarrinhoDeCompras(id, cliente, itens, LocalDate.now()));
+					id += 2;
+				}
+			}
+		}
+		return carrinhos;
+	}
+}
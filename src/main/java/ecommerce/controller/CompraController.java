@@ -1,33 +1,48 @@
 package ecommerce.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import ecommerce.dto.CompraDTO;
+import ecommerce.external.Prazo;
+import ecommerce.external.PrazoExpiradoException;
 import ecommerce.service.CompraService;
 
 @RestController
 @RequestMapping("/")
 public class CompraController {
 
+	// Tempo (ms) que o chamador ainda aceita esperar; sem o cabeçalho, ou acima dele, vale o prazo padrão
+	public static final String CABECALHO_PRAZO = "X-Prazo-Ms";
+
 	private final CompraService compraService;
+	private final long prazoPadraoMs;
 
 	@Autowired
-	public CompraController(CompraService compraService) {
+	public CompraController(CompraService compraService, @Value("${compra.prazo.padrao-ms:5000}") long prazoPadraoMs) {
 		this.compraService = compraService;
+		this.prazoPadraoMs = prazoPadraoMs;
 	}
 
 	@PostMapping("/finalizar")
-	public ResponseEntity<CompraDTO> finalizarCompra(@RequestParam Long carrinhoId, @RequestParam Long clienteId) {
+	public ResponseEntity<CompraDTO> finalizarCompra(@RequestParam Long carrinhoId, @RequestParam Long clienteId,
+			@RequestHeader(name = CABECALHO_PRAZO, required = false) Long prazoMs) {
 		try {
-			CompraDTO compraDTO = compraService.finalizarCompra(carrinhoId, clienteId);
+			if (prazoMs != null && prazoMs <= 0) {
+				throw new IllegalArgumentException("Prazo inválido.");
+			}
+			Prazo prazo = Prazo.emMillis(prazoMs != null ? Math.min(prazoMs, prazoPadraoMs) : prazoPadraoMs);
+			CompraDTO compraDTO = compraService.finalizarCompra(carrinhoId, clienteId, prazo);
 			return ResponseEntity.ok(compraDTO);
 		} catch (IllegalArgumentException e) {
 			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new CompraDTO(false, null, e.getMessage()));
 		} catch (IllegalStateException e) {
 			return ResponseEntity.status(HttpStatus.CONFLICT).body(new CompraDTO(false, null, e.getMessage()));
+		} catch (PrazoExpiradoException e) {
+			return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(new CompraDTO(false, null, e.getMessage()));
 		} catch (Exception e) {
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
 					.body(new CompraDTO(false, null, "Erro ao processar compra."));
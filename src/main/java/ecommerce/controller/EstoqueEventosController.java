@@ -0,0 +1,76 @@
+package ecommerce.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import ecommerce.dto.EstoqueNivelDTO;
+import ecommerce.external.cache.CacheDisponibilidade;
+
+// Recebe o feed de alterações do serviço de estoque para alimentar/invalidar o cache de disponibilidade.
+// Só o serviço de estoque pode alterar o cache: cada chamada traz o segredo compartilhado no cabeçalho
+// X-Estoque-Token; sem segredo configurado, o feed recusa tudo.
+@RestController
+@RequestMapping("/estoque")
+@ConditionalOnProperty(prefix = "estoque.cache", name = "enabled", havingValue = "true")
+public class EstoqueEventosController {
+
+	public static final String CABECALHO_TOKEN = "X-Estoque-Token";
+
+	private static final Logger log = LoggerFactory.getLogger(EstoqueEventosController.class);
+
+	private final CacheDisponibilidade cache;
+	private final byte[] token;
+
+	@Autowired
+	public EstoqueEventosController(CacheDisponibilidade cache, @Value("${estoque.cache.feed-token:}") String token) {
+		this.cache = cache;
+		this.token = token.getBytes(StandardCharsets.UTF_8);
+		if (token.isBlank()) {
+			log.warn("estoque.cache.feed-token não configurado: o feed /estoque/eventos recusará todas as chamadas");
+		}
+	}
+
+	@PostMapping("/eventos")
+	public ResponseEntity<Void> receberEventos(@RequestHeader(name = CABECALHO_TOKEN, required = false) String tokenRecebido,
+			@RequestBody List<EstoqueNivelDTO> eventos) {
+		if (!autorizado(tokenRecebido)) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+		}
+		for (EstoqueNivelDTO evento : eventos) {
+			if (evento.produtoId() == null) {
+				continue;
+			}
+			if (evento.quantidade() == null) {
+				cache.invalidar(evento.produtoId().longValue());
+			} else {
+				cache.registrarEstoque(evento.produtoId(), evento.quantidade());
+			}
+		}
+		return ResponseEntity.accepted().build();
+	}
+
+	@DeleteMapping("/eventos")
+	public ResponseEntity<Void> invalidarTodos(@RequestHeader(name = CABECALHO_TOKEN, required = false) String tokenRecebido) {
+		if (!autorizado(tokenRecebido)) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+		}
+		cache.invalidarTodos();
+		return ResponseEntity.accepted().build();
+	}
+
+	// Comparação em tempo constante para não vazar o segredo pelo tempo de resposta
+	private boolean autorizado(String tokenRecebido) {
+		return token.length > 0 && tokenRecebido != null
+				&& MessageDigest.isEqual(token, tokenRecebido.getBytes(StandardCharsets.UTF_8));
+	}
+}
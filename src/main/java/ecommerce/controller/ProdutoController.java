@@ -0,0 +1,38 @@
+package ecommerce.controller;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import ecommerce.dto.AtualizacaoLoteDTO;
+import ecommerce.service.AtualizacaoCatalogoService;
+
+@RestController
+@RequestMapping("/produtos")
+public class ProdutoController {
+
+	private final AtualizacaoCatalogoService atualizacaoCatalogoService;
+
+	@Autowired
+	public ProdutoController(AtualizacaoCatalogoService atualizacaoCatalogoService) {
+		this.atualizacaoCatalogoService = atualizacaoCatalogoService;
+	}
+
+	// Corpo em text/csv com linhas "id,preco,peso", lido em streaming
+	@PostMapping("/atualizacao-lote")
+	public ResponseEntity<AtualizacaoLoteDTO> atualizarEmLote(InputStream corpo) {
+		try {
+			AtualizacaoLoteDTO resultado = atualizacaoCatalogoService
+					.atualizar(new InputStreamReader(corpo, StandardCharsets.UTF_8));
+			return ResponseEntity.ok(resultado);
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+					.body(new AtualizacaoLoteDTO(null, null, null, null, null, e.getMessage()));
+		}
+	}
+}
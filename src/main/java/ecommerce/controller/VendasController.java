@@ -0,0 +1,34 @@
+package ecommerce.controller;
+
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import ecommerce.dto.TotaisVendasDTO;
+import ecommerce.service.ResumoVendasService;
+
+// Totais de vendas por tipo de cliente e de produto, lidos dos agregados incrementais
+@RestController
+@RequestMapping("/vendas")
+public class VendasController {
+
+	private final ResumoVendasService resumoVendasService;
+
+	@Autowired
+	public VendasController(ResumoVendasService resumoVendasService) {
+		this.resumoVendasService = resumoVendasService;
+	}
+
+	@GetMapping("/totais")
+	public ResponseEntity<TotaisVendasDTO> totais() {
+		return ResponseEntity.ok(resumoVendasService.totais());
+	}
+
+	@GetMapping("/totais/{dia}")
+	public ResponseEntity<TotaisVendasDTO> totaisDoDia(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dia) {
+		return ResponseEntity.ok(resumoVendasService.totaisDoDia(dia));
+	}
+}
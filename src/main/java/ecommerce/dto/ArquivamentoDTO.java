@@ -0,0 +1,4 @@
+package ecommerce.dto;
+
+public record ArquivamentoDTO(Long carrinhos, Long itens, Integer lotes, Long duracaoMs, Double linhasPorSegundo) {
+}
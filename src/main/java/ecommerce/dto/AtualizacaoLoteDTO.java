@@ -0,0 +1,6 @@
+package ecommerce.dto;
+
+// mensagem só é preenchida quando a atualização é recusada
+public record AtualizacaoLoteDTO(Long registros, Long atualizados, Integer lotes, Long duracaoMs,
+		Double registrosPorSegundo, String mensagem) {
+}
@@ -0,0 +1,23 @@
+package ecommerce.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ecommerce.entity.CarrinhoDeCompras;
+import ecommerce.entity.ItemCompra;
+import ecommerce.entity.TipoCliente;
+
+// Modelo de leitura do checkout: apenas o que finalizarCompra usa, sem entidades gerenciadas
+public record CarrinhoCheckoutDTO(Long carrinhoId, Long clienteId, TipoCliente tipoCliente, List<ItemCheckoutDTO> itens) {
+
+    // Adapta um carrinho já carregado como entidade (usado pelos chamadores de calcularCustoTotal)
+    public static CarrinhoCheckoutDTO de(CarrinhoDeCompras carrinho) {
+        List<ItemCheckoutDTO> itens = new ArrayList<>(carrinho.getItens().size());
+        for (ItemCompra item : carrinho.getItens()) {
+            itens.add(new ItemCheckoutDTO(item.getProduto().getId(), item.getQuantidade(), item.getProduto().getPreco(),
+                    item.getProduto().getPeso(), item.getProduto().getTipo()));
+        }
+        return new CarrinhoCheckoutDTO(carrinho.getId(), carrinho.getCliente().getId(), carrinho.getCliente().getTipo(),
+                itens);
+    }
+}
@@ -0,0 +1,12 @@
+package ecommerce.dto;
+
+import java.math.BigDecimal;
+
+// Composição do custo de uma compra: produtos já com desconto, valor descontado, frete e o fator
+// aplicado ao preço dos produtos (1, 0.9 ou 0.8)
+public record CustoCompraDTO(BigDecimal custoProdutos, BigDecimal desconto, BigDecimal frete, BigDecimal fatorDesconto) {
+
+    public BigDecimal total() {
+        return custoProdutos.add(frete);
+    }
+}
@@ -0,0 +1,5 @@
+package ecommerce.dto;
+
+// Item do feed de alterações do estoque; quantidade nula invalida o produto no cache
+public record EstoqueNivelDTO(Long produtoId, Long quantidade) {
+}
@@ -0,0 +1,4 @@
+package ecommerce.dto;
+
+public record EstoqueRequisicaoDTO(long[] produtosIds, long[] produtosQuantidades) {
+}
@@ -0,0 +1,9 @@
+package ecommerce.dto;
+
+import java.math.BigDecimal;
+
+import ecommerce.entity.TipoProduto;
+
+// Projeção somente leitura de um item do carrinho para o checkout (montada direto pela consulta JPQL)
+public record ItemCheckoutDTO(Long produtoId, Long quantidade, BigDecimal preco, Integer peso, TipoProduto tipoProduto) {
+}
@@ -0,0 +1,13 @@
+package ecommerce.dto;
+
+import java.math.BigDecimal;
+
+import ecommerce.entity.TipoCliente;
+import ecommerce.entity.TipoProduto;
+
+// Um item de uma compra finalizada com a composição do custo gravada no checkout, como lido pela
+// reconciliação dos agregados de vendas. Campos do item são nulos para uma compra sem itens.
+public record LinhaReconciliacaoDTO(Long compraId, Long carrinhoId, Long clienteId, TipoCliente tipoCliente,
+        BigDecimal custoProdutos, BigDecimal desconto, BigDecimal frete, BigDecimal fatorDesconto,
+        Long produtoId, Long quantidade, BigDecimal preco, Integer peso, TipoProduto tipoProduto) {
+}
@@ -0,0 +1,12 @@
+package ecommerce.dto;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import ecommerce.entity.TipoCliente;
+import ecommerce.entity.TipoProduto;
+
+// dia nulo indica o acumulado geral
+public record TotaisVendasDTO(LocalDate dia, Map<TipoCliente, TotalVendasDTO> porTipoCliente,
+        Map<TipoProduto, TotalVendasDTO> porTipoProduto) {
+}
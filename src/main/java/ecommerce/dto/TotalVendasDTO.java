@@ -0,0 +1,7 @@
+package ecommerce.dto;
+
+import java.math.BigDecimal;
+
+// Receita = produtos já com desconto (sem frete); quantidade = compras (tipo de cliente) ou unidades (tipo de produto)
+public record TotalVendasDTO(Long quantidade, BigDecimal receita, BigDecimal frete, BigDecimal desconto) {
+}
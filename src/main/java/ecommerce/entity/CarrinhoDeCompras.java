@@ -9,11 +9,17 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_carrinho_id_cliente", columnList = "id, cliente_id"), // findByIdAndCliente
+        @Index(name = "idx_carrinho_data", columnList = "data") // arquivamento por data de corte
+})
 public class CarrinhoDeCompras {
 
     @Id
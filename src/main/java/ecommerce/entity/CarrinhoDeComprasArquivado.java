@@ -0,0 +1,47 @@
+package ecommerce.entity;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+// Tabela de arquivo dos carrinhos antigos; preenchida em lote pelo ArquivamentoCarrinhosService
+@Entity
+public class CarrinhoDeComprasArquivado {
+
+    @Id
+    private Long id;
+
+    @Column(name = "cliente_id")
+    private Long clienteId;
+
+    private LocalDate data;
+
+    public CarrinhoDeComprasArquivado() {}
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getClienteId() {
+        return clienteId;
+    }
+
+    public void setClienteId(Long clienteId) {
+        this.clienteId = clienteId;
+    }
+
+    public LocalDate getData() {
+        return data;
+    }
+
+    public void setData(LocalDate data) {
+        this.data = data;
+    }
+}
@@ -0,0 +1,148 @@
+package ecommerce.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Histórico das compras finalizadas, gravado pelo HistoricoCompras no próprio checkout. Guarda o
+// tipo de cliente e a composição do custo como estavam na compra (os itens ficam em
+// ItemCompraFinalizada): a reconciliação dos agregados de vendas lê só daqui, nunca do catálogo.
+@Entity
+@Table(indexes = @Index(name = "idx_compra_finalizada_data", columnList = "data"))
+public class CompraFinalizada {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "carrinho_id")
+    private Long carrinhoId;
+
+    @Column(name = "cliente_id")
+    private Long clienteId;
+
+    @Column(name = "transacao_pagamento_id")
+    private Long transacaoPagamentoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_cliente")
+    private TipoCliente tipoCliente;
+
+    // Total cobrado (produtos com desconto + frete)
+    private BigDecimal valor;
+
+    // Escala 4: os descontos de 10% e 20% geram milésimos que o checkout não arredonda
+    @Column(name = "custo_produtos", scale = 4)
+    private BigDecimal custoProdutos;
+
+    @Column(scale = 4)
+    private BigDecimal desconto;
+
+    @Column(scale = 4)
+    private BigDecimal frete;
+
+    @Column(name = "fator_desconto")
+    private BigDecimal fatorDesconto;
+
+    private LocalDate data;
+
+    public CompraFinalizada() {}
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getCarrinhoId() {
+        return carrinhoId;
+    }
+
+    public void setCarrinhoId(Long carrinhoId) {
+        this.carrinhoId = carrinhoId;
+    }
+
+    public Long getClienteId() {
+        return clienteId;
+    }
+
+    public void setClienteId(Long clienteId) {
+        this.clienteId = clienteId;
+    }
+
+    public Long getTransacaoPagamentoId() {
+        return transacaoPagamentoId;
+    }
+
+    public void setTransacaoPagamentoId(Long transacaoPagamentoId) {
+        this.transacaoPagamentoId = transacaoPagamentoId;
+    }
+
+    public TipoCliente getTipoCliente() {
+        return tipoCliente;
+    }
+
+    public void setTipoCliente(TipoCliente tipoCliente) {
+        this.tipoCliente = tipoCliente;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public void setValor(BigDecimal valor) {
+        this.valor = valor;
+    }
+
+    public BigDecimal getCustoProdutos() {
+        return custoProdutos;
+    }
+
+    public void setCustoProdutos(BigDecimal custoProdutos) {
+        this.custoProdutos = custoProdutos;
+    }
+
+    public BigDecimal getDesconto() {
+        return desconto;
+    }
+
+    public void setDesconto(BigDecimal desconto) {
+        this.desconto = desconto;
+    }
+
+    public BigDecimal getFrete() {
+        return frete;
+    }
+
+    public void setFrete(BigDecimal frete) {
+        this.frete = frete;
+    }
+
+    public BigDecimal getFatorDesconto() {
+        return fatorDesconto;
+    }
+
+    public void setFatorDesconto(BigDecimal fatorDesconto) {
+        this.fatorDesconto = fatorDesconto;
+    }
+
+    public LocalDate getData() {
+        return data;
+    }
+
+    public void setData(LocalDate data) {
+        this.data = data;
+    }
+}
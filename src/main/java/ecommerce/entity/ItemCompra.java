@@ -1,13 +1,17 @@
 package ecommerce.entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 
 @Entity
+@Table(indexes = @Index(name = "idx_item_compra_carrinho", columnList = "carrinho_id"))
 public class ItemCompra {
 
     @Id
@@ -20,6 +24,11 @@ public class ItemCompra {
 
     private Long quantidade;
 
+    // Só mapeamento: declara a coluna para o índice acima; quem a mantém é o @JoinColumn de
+    // CarrinhoDeCompras.itens. Sem getter, para não virar um segundo caminho até o carrinho
+    @Column(name = "carrinho_id", insertable = false, updatable = false)
+    private Long carrinhoId;
+
     public ItemCompra() {}
 
     public ItemCompra(Long id, Produto produto, Long quantidade) {
@@ -0,0 +1,98 @@
+package ecommerce.entity;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Item de uma CompraFinalizada com preço, peso e tipo do produto no momento do checkout
+@Entity
+@Table(indexes = @Index(name = "idx_item_compra_finalizada_compra", columnList = "compra_finalizada_id"))
+public class ItemCompraFinalizada {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "compra_finalizada_id")
+    private Long compraFinalizadaId;
+
+    @Column(name = "produto_id")
+    private Long produtoId;
+
+    private Long quantidade;
+
+    private BigDecimal preco;
+
+    private Integer peso;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_produto")
+    private TipoProduto tipoProduto;
+
+    public ItemCompraFinalizada() {}
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getCompraFinalizadaId() {
+        return compraFinalizadaId;
+    }
+
+    public void setCompraFinalizadaId(Long compraFinalizadaId) {
+        this.compraFinalizadaId = compraFinalizadaId;
+    }
+
+    public Long getProdutoId() {
+        return produtoId;
+    }
+
+    public void setProdutoId(Long produtoId) {
+        this.produtoId = produtoId;
+    }
+
+    public Long getQuantidade() {
+        return quantidade;
+    }
+
+    public void setQuantidade(Long quantidade) {
+        this.quantidade = quantidade;
+    }
+
+    public BigDecimal getPreco() {
+        return preco;
+    }
+
+    public void setPreco(BigDecimal preco) {
+        this.preco = preco;
+    }
+
+    public Integer getPeso() {
+        return peso;
+    }
+
+    public void setPeso(Integer peso) {
+        this.peso = peso;
+    }
+
+    public TipoProduto getTipoProduto() {
+        return tipoProduto;
+    }
+
+    public void setTipoProduto(TipoProduto tipoProduto) {
+        this.tipoProduto = tipoProduto;
+    }
+}
@@ -0,0 +1,109 @@
+package ecommerce.entity;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+// Totais de vendas por dia e por tipo de cliente/produto, em centavos. Gravado periodicamente a
+// partir dos contadores em memória (ResumoVendasService); uma linha por (dia, dimensao, chave)
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_resumo_vendas_dia", columnNames = { "dia", "dimensao", "chave" }))
+public class ResumoVendas {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private LocalDate dia;
+
+    // TIPO_CLIENTE ou TIPO_PRODUTO
+    private String dimensao;
+
+    // Nome do TipoCliente/TipoProduto
+    private String chave;
+
+    // Compras (por tipo de cliente) ou unidades vendidas (por tipo de produto)
+    private Long quantidade;
+
+    @Column(name = "receita_centavos")
+    private Long receitaCentavos;
+
+    @Column(name = "frete_centavos")
+    private Long freteCentavos;
+
+    @Column(name = "desconto_centavos")
+    private Long descontoCentavos;
+
+    public ResumoVendas() {}
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getDia() {
+        return dia;
+    }
+
+    public void setDia(LocalDate dia) {
+        this.dia = dia;
+    }
+
+    public String getDimensao() {
+        return dimensao;
+    }
+
+    public void setDimensao(String dimensao) {
+        this.dimensao = dimensao;
+    }
+
+    public String getChave() {
+        return chave;
+    }
+
+    public void setChave(String chave) {
+        this.chave = chave;
+    }
+
+    public Long getQuantidade() {
+        return quantidade;
+    }
+
+    public void setQuantidade(Long quantidade) {
+        this.quantidade = quantidade;
+    }
+
+    public Long getReceitaCentavos() {
+        return receitaCentavos;
+    }
+
+    public void setReceitaCentavos(Long receitaCentavos) {
+        this.receitaCentavos = receitaCentavos;
+    }
+
+    public Long getFreteCentavos() {
+        return freteCentavos;
+    }
+
+    public void setFreteCentavos(Long freteCentavos) {
+        this.freteCentavos = freteCentavos;
+    }
+
+    public Long getDescontoCentavos() {
+        return descontoCentavos;
+    }
+
+    public void setDescontoCentavos(Long descontoCentavos) {
+        this.descontoCentavos = descontoCentavos;
+    }
+}
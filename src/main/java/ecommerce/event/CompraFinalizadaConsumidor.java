@@ -0,0 +1,7 @@
+package ecommerce.event;
+
+public interface CompraFinalizadaConsumidor {
+
+	// Chamado na thread consumidora do ring buffer; fimDoLote indica o último evento do lote atual
+	void aoReceber(CompraFinalizadaEvent evento, long sequencia, boolean fimDoLote);
+}
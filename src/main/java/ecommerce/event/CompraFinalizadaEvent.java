@@ -0,0 +1,42 @@
+package ecommerce.event;
+
+import java.math.BigDecimal;
+
+// Slot pré-alocado do ring buffer: é reutilizado a cada volta, portanto os consumidores
+// devem copiar o que precisarem manter depois de aoReceber.
+public final class CompraFinalizadaEvent {
+
+	private long carrinhoId;
+	private long clienteId;
+	private long transacaoPagamentoId;
+	private BigDecimal valorTotal;
+	private long instante;
+
+	void preencher(long carrinhoId, long clienteId, long transacaoPagamentoId, BigDecimal valorTotal, long instante) {
+		this.carrinhoId = carrinhoId;
+		this.clienteId = clienteId;
+		this.transacaoPagamentoId = transacaoPagamentoId;
+		this.valorTotal = valorTotal;
+		this.instante = instante;
+	}
+
+	public long getCarrinhoId() {
+		return carrinhoId;
+	}
+
+	public long getClienteId() {
+		return clienteId;
+	}
+
+	public long getTransacaoPagamentoId() {
+		return transacaoPagamentoId;
+	}
+
+	public BigDecimal getValorTotal() {
+		return valorTotal;
+	}
+
+	public long getInstante() {
+		return instante;
+	}
+}
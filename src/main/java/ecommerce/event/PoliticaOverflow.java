@@ -0,0 +1,8 @@
+package ecommerce.event;
+
+public enum PoliticaOverflow {
+	// Descarta o novo evento quando o buffer está cheio (não bloqueia a requisição)
+	DESCARTAR,
+	// Aguarda o consumidor liberar espaço
+	BLOQUEAR;
+}
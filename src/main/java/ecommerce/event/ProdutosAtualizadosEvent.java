@@ -0,0 +1,6 @@
+package ecommerce.event;
+
+// Publicado uma única vez ao fim de uma atualização em lote do catálogo, com todos os ids
+// alterados, para que caches de preço/peso sejam invalidados de uma vez
+public record ProdutosAtualizadosEvent(long[] produtosIds) {
+}
@@ -0,0 +1,56 @@
+package ecommerce.event;
+
+import java.math.BigDecimal;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+@Component
+public class PublicadorComprasFinalizadas {
+
+	private final RingBufferCompras ringBuffer;
+
+	@Autowired
+	public PublicadorComprasFinalizadas(@Value("${compra.eventos.capacidade:4096}") int capacidade,
+			@Value("${compra.eventos.politica-overflow:DESCARTAR}") PoliticaOverflow politica,
+			@Value("${compra.eventos.tamanho-lote:64}") int tamanhoLote,
+			ObjectProvider<CompraFinalizadaConsumidor> consumidores, MeterRegistry meterRegistry) {
+		this.ringBuffer = new RingBufferCompras(capacidade, politica, tamanhoLote,
+				consumidores.orderedStream().toList());
+
+		Gauge.builder("compra.eventos.lag", ringBuffer, RingBufferCompras::lag)
+				.description("Eventos publicados ainda não entregues aos consumidores")
+				.register(meterRegistry);
+		FunctionCounter.builder("compra.eventos.publicados", ringBuffer, RingBufferCompras::publicados)
+				.register(meterRegistry);
+		FunctionCounter.builder("compra.eventos.descartados", ringBuffer, RingBufferCompras::descartados)
+				.description("Eventos descartados por buffer cheio")
+				.register(meterRegistry);
+		FunctionCounter.builder("compra.eventos.falhas", ringBuffer, RingBufferCompras::falhas)
+				.description("Entregas a consumidores que terminaram em exceção ou erro")
+				.register(meterRegistry);
+	}
+
+	@PostConstruct
+	public void iniciar() {
+		ringBuffer.iniciar();
+	}
+
+	@PreDestroy
+	public void parar() throws InterruptedException {
+		ringBuffer.parar();
+	}
+
+	public boolean publicar(Long carrinhoId, Long clienteId, Long transacaoPagamentoId, BigDecimal valorTotal) {
+		return ringBuffer.publicar(carrinhoId, clienteId, transacaoPagamentoId != null ? transacaoPagamentoId : -1,
+				valorTotal);
+	}
+}
@@ -0,0 +1,161 @@
+package ecommerce.event;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Ring buffer sem locks: vários produtores reservam sequências por CAS e escrevem em slots
+// pré-alocados; uma única thread consumidora entrega os eventos em lotes aos consumidores.
+public class RingBufferCompras {
+
+	private static final Logger log = LoggerFactory.getLogger(RingBufferCompras.class);
+	private static final long ESPERA_OCIOSA_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+	private final CompraFinalizadaEvent[] eventos;
+	private final AtomicLongArray publicados;
+	private final int mascara;
+	private final AtomicLong cursor = new AtomicLong(-1);
+	private final AtomicLong consumido = new AtomicLong(-1);
+	private final LongAdder descartados = new LongAdder();
+	private final LongAdder falhas = new LongAdder();
+
+	private final PoliticaOverflow politica;
+	private final int tamanhoLote;
+	private final List<CompraFinalizadaConsumidor> consumidores;
+
+	private volatile boolean executando;
+	private Thread thread;
+
+	public RingBufferCompras(int capacidade, PoliticaOverflow politica, int tamanhoLote,
+			List<CompraFinalizadaConsumidor> consumidores) {
+		if (capacidade <= 0 || Integer.bitCount(capacidade) != 1) {
+			throw new IllegalArgumentException("Capacidade do ring buffer deve ser potência de 2.");
+		}
+		this.eventos = new CompraFinalizadaEvent[capacidade];
+		this.publicados = new AtomicLongArray(capacidade);
+		for (int i = 0; i < capacidade; i++) {
+			eventos[i] = new CompraFinalizadaEvent();
+			publicados.set(i, -1);
+		}
+		this.mascara = capacidade - 1;
+		this.politica = politica;
+		this.tamanhoLote = tamanhoLote;
+		this.consumidores = List.copyOf(consumidores);
+	}
+
+	public synchronized void iniciar() {
+		if (executando) {
+			return;
+		}
+		executando = true;
+		thread = new Thread(this::consumir, "compras-finalizadas-consumidor");
+		thread.setDaemon(true);
+		thread.setUncaughtExceptionHandler((t, e) -> log.error("Thread consumidora de compras finalizadas encerrada", e));
+		thread.start();
+	}
+
+	// Para a thread consumidora depois de entregar o que já foi publicado
+	public synchronized void parar() throws InterruptedException {
+		if (!executando) {
+			return;
+		}
+		executando = false;
+		thread.join(TimeUnit.SECONDS.toMillis(5));
+	}
+
+	public boolean publicar(long carrinhoId, long clienteId, long transacaoPagamentoId, BigDecimal valorTotal) {
+		long sequencia = reservar();
+		if (sequencia < 0) {
+			descartados.increment();
+			return false;
+		}
+
+		int indice = (int) (sequencia & mascara);
+		eventos[indice].preencher(carrinhoId, clienteId, transacaoPagamentoId, valorTotal, System.currentTimeMillis());
+		publicados.set(indice, sequencia);
+		return true;
+	}
+
+	public long lag() {
+		return cursor.get() - consumido.get();
+	}
+
+	public long descartados() {
+		return descartados.sum();
+	}
+
+	public long falhas() {
+		return falhas.sum();
+	}
+
+	public long publicados() {
+		return cursor.get() + 1;
+	}
+
+	private long reservar() {
+		while (true) {
+			long atual = cursor.get();
+			long proxima = atual + 1;
+
+			// O slot de "proxima" ainda guarda um evento não consumido da volta anterior
+			if (proxima - eventos.length > consumido.get()) {
+				if (politica == PoliticaOverflow.DESCARTAR || !executando) {
+					return -1;
+				}
+				LockSupport.parkNanos(ESPERA_OCIOSA_NANOS);
+				continue;
+			}
+
+			if (cursor.compareAndSet(atual, proxima)) {
+				return proxima;
+			}
+		}
+	}
+
+	private boolean disponivel(long sequencia) {
+		return publicados.get((int) (sequencia & mascara)) == sequencia;
+	}
+
+	private void consumir() {
+		long proxima = consumido.get() + 1;
+
+		while (executando || disponivel(proxima)) {
+			long ultima = proxima - 1;
+			while (ultima - proxima + 1 < tamanhoLote && disponivel(ultima + 1)) {
+				ultima++;
+			}
+
+			if (ultima < proxima) {
+				LockSupport.parkNanos(ESPERA_OCIOSA_NANOS);
+				continue;
+			}
+
+			for (long sequencia = proxima; sequencia <= ultima; sequencia++) {
+				CompraFinalizadaEvent evento = eventos[(int) (sequencia & mascara)];
+				for (CompraFinalizadaConsumidor consumidor : consumidores) {
+					try {
+						consumidor.aoReceber(evento, sequencia, sequencia == ultima);
+					} catch (RuntimeException e) {
+						falhas.increment();
+						log.warn("Consumidor {} falhou no evento {}", consumidor.getClass().getSimpleName(), sequencia, e);
+					} catch (Error e) {
+						// Um Error de um consumidor não pode matar a thread: o buffer encheria e
+						// descartaria (ou bloquearia) todas as compras seguintes
+						falhas.increment();
+						log.error("Consumidor {} falhou no evento {}", consumidor.getClass().getSimpleName(), sequencia, e);
+					}
+				}
+			}
+
+			consumido.set(ultima);
+			proxima = ultima + 1;
+		}
+	}
+}
@@ -11,4 +11,23 @@ public interface IEstoqueExternal {
 
 	public DisponibilidadeDTO verificarDisponibilidade(List<Long> produtosIds, List<Long> produtosQuantidades);
 
+	// Contrato em lote; por padrão adapta para os métodos baseados em List
+	public default EstoqueBaixaDTO darBaixa(LoteEstoque lote) {
+		return darBaixa(lote.produtosIdsComoLista(), lote.quantidadesComoLista());
+	}
+
+	public default DisponibilidadeDTO verificarDisponibilidade(LoteEstoque lote) {
+		return verificarDisponibilidade(lote.produtosIdsComoLista(), lote.quantidadesComoLista());
+	}
+
+	// Com o tempo restante do prazo da compra como orçamento; implementações que não conseguem
+	// limitar a chamada ignoram o prazo
+	public default EstoqueBaixaDTO darBaixa(LoteEstoque lote, Prazo prazo) {
+		return darBaixa(lote);
+	}
+
+	public default DisponibilidadeDTO verificarDisponibilidade(LoteEstoque lote, Prazo prazo) {
+		return verificarDisponibilidade(lote);
+	}
+
 }
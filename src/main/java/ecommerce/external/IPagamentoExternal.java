@@ -7,4 +7,13 @@ public interface IPagamentoExternal {
 	PagamentoDTO autorizarPagamento(Long clienteId, Double custoTotal);
 
 	void cancelarPagamento(Long clienteId, Long pagamentoTransacaoId);
+
+	// Com o tempo restante do prazo como orçamento; por padrão o prazo é ignorado
+	default PagamentoDTO autorizarPagamento(Long clienteId, Double custoTotal, Prazo prazo) {
+		return autorizarPagamento(clienteId, custoTotal);
+	}
+
+	default void cancelarPagamento(Long clienteId, Long pagamentoTransacaoId, Prazo prazo) {
+		cancelarPagamento(clienteId, pagamentoTransacaoId);
+	}
 }
@@ -0,0 +1,77 @@
+package ecommerce.external;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import ecommerce.dto.CarrinhoCheckoutDTO;
+import ecommerce.dto.ItemCheckoutDTO;
+
+// Lote de itens enviado ao estoque: ids e quantidades em arrays primitivos paralelos,
+// preenchidos em uma única passada pelos itens do carrinho (sem boxing).
+public final class LoteEstoque {
+
+	private final long[] produtosIds;
+	private final long[] quantidades;
+	private int tamanho;
+
+	public LoteEstoque(int capacidade) {
+		this.produtosIds = new long[capacidade];
+		this.quantidades = new long[capacidade];
+	}
+
+	public static LoteEstoque deCarrinho(CarrinhoCheckoutDTO carrinho) {
+		LoteEstoque lote = new LoteEstoque(carrinho.itens().size());
+		for (ItemCheckoutDTO item : carrinho.itens()) {
+			lote.adicionar(item.produtoId(), item.quantidade());
+		}
+		return lote;
+	}
+
+	public void adicionar(long produtoId, long quantidade) {
+		if (tamanho == produtosIds.length) {
+			throw new IllegalStateException("Lote de estoque cheio.");
+		}
+		produtosIds[tamanho] = produtoId;
+		quantidades[tamanho] = quantidade;
+		tamanho++;
+	}
+
+	public int tamanho() {
+		return tamanho;
+	}
+
+	public long produtoId(int indice) {
+		return produtosIds[Objects.checkIndex(indice, tamanho)];
+	}
+
+	public long quantidade(int indice) {
+		return quantidades[Objects.checkIndex(indice, tamanho)];
+	}
+
+	public long[] produtosIdsComoArray() {
+		return Arrays.copyOf(produtosIds, tamanho);
+	}
+
+	public long[] quantidadesComoArray() {
+		return Arrays.copyOf(quantidades, tamanho);
+	}
+
+	// Usados apenas pelos adaptadores que ainda trabalham com o contrato baseado em List
+	public List<Long> produtosIdsComoLista() {
+		List<Long> lista = new ArrayList<>(tamanho);
+		for (int i = 0; i < tamanho; i++) {
+			lista.add(produtosIds[i]);
+		}
+		return lista;
+	}
+
+	public List<Long> quantidadesComoLista() {
+		List<Long> lista = new ArrayList<>(tamanho);
+		for (int i = 0; i < tamanho; i++) {
+			lista.add(quantidades[i]);
+		}
+		return lista;
+	}
+}
@@ -0,0 +1,37 @@
+package ecommerce.external;
+
+import java.util.concurrent.TimeUnit;
+
+// Prazo absoluto de uma compra (relógio monotônico). Cada chamada externa usa o que resta dele
+// como orçamento, limitado ao seu próprio timeout.
+public final class Prazo {
+
+	private final long limiteNanos;
+
+	private Prazo(long limiteNanos) {
+		this.limiteNanos = limiteNanos;
+	}
+
+	public static Prazo emMillis(long millis) {
+		return new Prazo(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+	}
+
+	public boolean expirado() {
+		return limiteNanos - System.nanoTime() <= 0;
+	}
+
+	public long restanteNanos() {
+		return Math.max(0, limiteNanos - System.nanoTime());
+	}
+
+	public long restanteMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(restanteNanos());
+	}
+
+	// Menor entre o timeout da chamada e o tempo restante, nunca zero (zero significa "sem timeout" nos clientes HTTP).
+	// O restante é arredondado para cima: uma chamada limitada pelo prazo só estoura depois que ele expirou.
+	public long limitarMillis(long timeoutMs) {
+		long restanteArredondado = (restanteNanos() + 999_999) / 1_000_000;
+		return Math.max(1, Math.min(timeoutMs, restanteArredondado));
+	}
+}
@@ -0,0 +1,13 @@
+package ecommerce.external;
+
+// O prazo da compra acabou (ou não comporta a próxima chamada externa)
+public class PrazoExpiradoException extends RuntimeException {
+
+	public PrazoExpiradoException(String mensagem) {
+		super(mensagem);
+	}
+
+	public PrazoExpiradoException(String mensagem, Throwable causa) {
+		super(mensagem, causa);
+	}
+}
@@ -0,0 +1,99 @@
+package ecommerce.external.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import ecommerce.external.LoteEstoque;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Limite inferior conhecido do estoque de cada produto. Um lote só é considerado disponível
+// localmente se cada linha estiver bem abaixo do limite (fracaoSegura); o resto vai ao estoque remoto.
+@Component
+@ConditionalOnProperty(prefix = "estoque.cache", name = "enabled", havingValue = "true")
+public class CacheDisponibilidade {
+
+	private record Limite(long quantidade, long expiraEm) {
+	}
+
+	private final ConcurrentHashMap<Long, Limite> limites = new ConcurrentHashMap<>();
+	private final double fracaoSegura;
+	private final long ttlMs;
+	private final int maxEntradas;
+
+	private final LongAdder consultas = new LongAdder();
+	private final LongAdder evitadas = new LongAdder();
+
+	@Autowired
+	public CacheDisponibilidade(@Value("${estoque.cache.fracao-segura:0.5}") double fracaoSegura,
+			@Value("${estoque.cache.ttl-ms:30000}") long ttlMs,
+			@Value("${estoque.cache.max-entradas:100000}") int maxEntradas, MeterRegistry meterRegistry) {
+		this.fracaoSegura = fracaoSegura;
+		this.ttlMs = ttlMs;
+		this.maxEntradas = maxEntradas;
+
+		FunctionCounter.builder("estoque.cache.consultas", consultas, LongAdder::sum).register(meterRegistry);
+		FunctionCounter.builder("estoque.cache.evitadas", evitadas, LongAdder::sum)
+				.description("Consultas de disponibilidade respondidas sem ir ao estoque")
+				.register(meterRegistry);
+		Gauge.builder("estoque.cache.taxa-evitadas", this, CacheDisponibilidade::taxaEvitadas)
+				.description("Fração das consultas de disponibilidade respondidas sem ir ao estoque")
+				.register(meterRegistry);
+		Gauge.builder("estoque.cache.entradas", limites, ConcurrentHashMap::size).register(meterRegistry);
+	}
+
+	// Feed de alterações: nível de estoque informado pelo serviço de estoque
+	public void registrarEstoque(long produtoId, long quantidade) {
+		if (limites.size() >= maxEntradas && !limites.containsKey(produtoId)) {
+			return;
+		}
+		limites.put(produtoId, new Limite(quantidade, System.currentTimeMillis() + ttlMs));
+	}
+
+	public void invalidar(long produtoId) {
+		limites.remove(produtoId);
+	}
+
+	public void invalidarTodos() {
+		limites.clear();
+	}
+
+	public boolean cobre(LoteEstoque lote) {
+		consultas.increment();
+		long agora = System.currentTimeMillis();
+		for (int i = 0; i < lote.tamanho(); i++) {
+			Limite limite = limites.get(lote.produtoId(i));
+			if (limite == null || limite.expiraEm() < agora || lote.quantidade(i) > limite.quantidade() * fracaoSegura) {
+				return false;
+			}
+		}
+		evitadas.increment();
+		return true;
+	}
+
+	// Baixa confirmada: o limite continua válido descontando o que saiu
+	public void descontar(LoteEstoque lote) {
+		for (int i = 0; i < lote.tamanho(); i++) {
+			long quantidade = lote.quantidade(i);
+			limites.computeIfPresent(lote.produtoId(i),
+					(id, limite) -> new Limite(Math.max(0, limite.quantidade() - quantidade), limite.expiraEm()));
+		}
+	}
+
+	public void invalidar(LoteEstoque lote) {
+		for (int i = 0; i < lote.tamanho(); i++) {
+			limites.remove(lote.produtoId(i));
+		}
+	}
+
+	public double taxaEvitadas() {
+		long total = consultas.sum();
+		return total == 0 ? 0 : (double) evitadas.sum() / total;
+	}
+}
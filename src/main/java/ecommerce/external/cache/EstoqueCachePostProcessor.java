@@ -0,0 +1,35 @@
+package ecommerce.external.cache;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import ecommerce.external.IEstoqueExternal;
+
+// Envolve o IEstoqueExternal com EstoqueComCache. Ordem maior que a do hedging: o cache fica por
+// fora, então consultas respondidas localmente não chegam a ser duplicadas.
+@Component
+@ConditionalOnProperty(prefix = "estoque.cache", name = "enabled", havingValue = "true")
+public class EstoqueCachePostProcessor implements BeanPostProcessor, Ordered {
+
+	private final ObjectProvider<CacheDisponibilidade> cache;
+
+	public EstoqueCachePostProcessor(ObjectProvider<CacheDisponibilidade> cache) {
+		this.cache = cache;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof IEstoqueExternal estoque && !(bean instanceof EstoqueComCache)) {
+			return new EstoqueComCache(estoque, cache.getObject());
+		}
+		return bean;
+	}
+
+	@Override
+	public int getOrder() {
+		return 10;
+	}
+}
@@ -0,0 +1,90 @@
+package ecommerce.external.cache;
+
+import java.util.List;
+
+import ecommerce.dto.DisponibilidadeDTO;
+import ecommerce.dto.EstoqueBaixaDTO;
+import ecommerce.external.IEstoqueExternal;
+import ecommerce.external.LoteEstoque;
+import ecommerce.external.Prazo;
+
+// Decorador que responde a consulta de disponibilidade localmente quando o CacheDisponibilidade
+// garante estoque de sobra para todas as linhas; caso contrário consulta o estoque remoto.
+public class EstoqueComCache implements IEstoqueExternal {
+
+	private static final DisponibilidadeDTO DISPONIVEL = new DisponibilidadeDTO(true, List.of());
+
+	private final IEstoqueExternal delegate;
+	private final CacheDisponibilidade cache;
+
+	public EstoqueComCache(IEstoqueExternal delegate, CacheDisponibilidade cache) {
+		this.delegate = delegate;
+		this.cache = cache;
+	}
+
+	@Override
+	public EstoqueBaixaDTO darBaixa(List<Long> produtosIds, List<Long> produtosQuantidades) {
+		return darBaixa(lote(produtosIds, produtosQuantidades));
+	}
+
+	@Override
+	public DisponibilidadeDTO verificarDisponibilidade(List<Long> produtosIds, List<Long> produtosQuantidades) {
+		return verificarDisponibilidade(lote(produtosIds, produtosQuantidades));
+	}
+
+	@Override
+	public EstoqueBaixaDTO darBaixa(LoteEstoque lote) {
+		try {
+			return atualizar(lote, delegate.darBaixa(lote));
+		} catch (RuntimeException e) {
+			cache.invalidar(lote);
+			throw e;
+		}
+	}
+
+	@Override
+	public DisponibilidadeDTO verificarDisponibilidade(LoteEstoque lote) {
+		if (cache.cobre(lote)) {
+			return DISPONIVEL;
+		}
+		return delegate.verificarDisponibilidade(lote);
+	}
+
+	@Override
+	public EstoqueBaixaDTO darBaixa(LoteEstoque lote, Prazo prazo) {
+		try {
+			return atualizar(lote, delegate.darBaixa(lote, prazo));
+		} catch (RuntimeException e) {
+			cache.invalidar(lote);
+			throw e;
+		}
+	}
+
+	// Acerto no cache não gasta prazo; só a consulta remota recebe o que resta dele
+	@Override
+	public DisponibilidadeDTO verificarDisponibilidade(LoteEstoque lote, Prazo prazo) {
+		if (cache.cobre(lote)) {
+			return DISPONIVEL;
+		}
+		return delegate.verificarDisponibilidade(lote, prazo);
+	}
+
+	// Baixa recusada ou sem resposta (exceção, timeout) invalida os produtos: o estoque remoto pode ter
+	// mudado sem que o limite local saiba quanto
+	private EstoqueBaixaDTO atualizar(LoteEstoque lote, EstoqueBaixaDTO baixa) {
+		if (baixa != null && Boolean.TRUE.equals(baixa.sucesso())) {
+			cache.descontar(lote);
+		} else {
+			cache.invalidar(lote);
+		}
+		return baixa;
+	}
+
+	private static LoteEstoque lote(List<Long> produtosIds, List<Long> produtosQuantidades) {
+		LoteEstoque lote = new LoteEstoque(produtosIds.size());
+		for (int i = 0; i < produtosIds.size(); i++) {
+			lote.adicionar(produtosIds.get(i), produtosQuantidades.get(i));
+		}
+		return lote;
+	}
+}
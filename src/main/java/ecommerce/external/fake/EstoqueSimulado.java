@@ -3,12 +3,15 @@ package ecommerce.external.fake;
 import java.util.List;
 
 import ecommerce.dto.DisponibilidadeDTO;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
 import ecommerce.dto.EstoqueBaixaDTO;
 import ecommerce.external.IEstoqueExternal;
+import ecommerce.external.LoteEstoque;
 
 @Service
+@Profile("!feign")
 public class EstoqueSimulado implements IEstoqueExternal {
 
     @Override
@@ -20,4 +23,15 @@ public class EstoqueSimulado implements IEstoqueExternal {
     public DisponibilidadeDTO verificarDisponibilidade(List<Long> produtosIds, List<Long> produtosQuantidades) {
         return null;
     }
+
+    // Contrato em lote sobrescrito para não converter o lote de volta em listas com boxing
+    @Override
+    public EstoqueBaixaDTO darBaixa(LoteEstoque lote) {
+        return new EstoqueBaixaDTO(true);
+    }
+
+    @Override
+    public DisponibilidadeDTO verificarDisponibilidade(LoteEstoque lote) {
+        return null;
+    }
 }
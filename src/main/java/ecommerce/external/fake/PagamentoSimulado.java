@@ -1,11 +1,13 @@
 package ecommerce.external.fake;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
 import ecommerce.dto.PagamentoDTO;
 import ecommerce.external.IPagamentoExternal;
 
 @Service
+@Profile("!feign")
 public class PagamentoSimulado implements IPagamentoExternal{
 
     @Override
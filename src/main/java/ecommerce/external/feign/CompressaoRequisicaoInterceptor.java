@@ -0,0 +1,37 @@
+package ecommerce.external.feign;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+// O suporte de compressão do Spring Cloud só adiciona o cabeçalho; aqui o corpo é de fato comprimido
+public class CompressaoRequisicaoInterceptor implements RequestInterceptor {
+
+	private final int tamanhoMinimo;
+
+	public CompressaoRequisicaoInterceptor(int tamanhoMinimo) {
+		this.tamanhoMinimo = tamanhoMinimo;
+	}
+
+	@Override
+	public void apply(RequestTemplate template) {
+		byte[] corpo = template.body();
+		if (corpo == null || corpo.length < tamanhoMinimo) {
+			return;
+		}
+
+		ByteArrayOutputStream saida = new ByteArrayOutputStream(corpo.length / 2);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+			gzip.write(corpo);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		template.body(saida.toByteArray(), null);
+		template.header("Content-Encoding", "gzip");
+	}
+}
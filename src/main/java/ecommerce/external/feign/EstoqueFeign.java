@@ -0,0 +1,79 @@
+package ecommerce.external.feign;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import ecommerce.dto.DisponibilidadeDTO;
+import ecommerce.dto.EstoqueBaixaDTO;
+import ecommerce.dto.EstoqueRequisicaoDTO;
+import ecommerce.external.IEstoqueExternal;
+import ecommerce.external.LoteEstoque;
+import ecommerce.external.Prazo;
+import feign.Request;
+
+@Service
+@Profile("feign")
+public class EstoqueFeign implements IEstoqueExternal {
+
+	private final EstoqueFeignClient client;
+	private final long connectTimeoutMs;
+	private final long readTimeoutMs;
+
+	@Autowired
+	public EstoqueFeign(EstoqueFeignClient client,
+			@Value("${spring.cloud.openfeign.client.config.estoque.connect-timeout:500}") long connectTimeoutMs,
+			@Value("${spring.cloud.openfeign.client.config.estoque.read-timeout:1500}") long readTimeoutMs) {
+		this.client = client;
+		this.connectTimeoutMs = connectTimeoutMs;
+		this.readTimeoutMs = readTimeoutMs;
+	}
+
+	@Override
+	public EstoqueBaixaDTO darBaixa(List<Long> produtosIds, List<Long> produtosQuantidades) {
+		return client.darBaixa(requisicao(produtosIds, produtosQuantidades));
+	}
+
+	@Override
+	public DisponibilidadeDTO verificarDisponibilidade(List<Long> produtosIds, List<Long> produtosQuantidades) {
+		return client.verificarDisponibilidade(requisicao(produtosIds, produtosQuantidades));
+	}
+
+	@Override
+	public EstoqueBaixaDTO darBaixa(LoteEstoque lote) {
+		return client.darBaixa(requisicao(lote));
+	}
+
+	@Override
+	public DisponibilidadeDTO verificarDisponibilidade(LoteEstoque lote) {
+		return client.verificarDisponibilidade(requisicao(lote));
+	}
+
+	@Override
+	public EstoqueBaixaDTO darBaixa(LoteEstoque lote, Prazo prazo) {
+		return client.darBaixa(requisicao(lote), opcoes(prazo));
+	}
+
+	@Override
+	public DisponibilidadeDTO verificarDisponibilidade(LoteEstoque lote, Prazo prazo) {
+		return client.verificarDisponibilidade(requisicao(lote), opcoes(prazo));
+	}
+
+	private Request.Options opcoes(Prazo prazo) {
+		return new Request.Options(prazo.limitarMillis(connectTimeoutMs), TimeUnit.MILLISECONDS,
+				prazo.limitarMillis(readTimeoutMs), TimeUnit.MILLISECONDS, true);
+	}
+
+	private static EstoqueRequisicaoDTO requisicao(LoteEstoque lote) {
+		return new EstoqueRequisicaoDTO(lote.produtosIdsComoArray(), lote.quantidadesComoArray());
+	}
+
+	private static EstoqueRequisicaoDTO requisicao(List<Long> produtosIds, List<Long> produtosQuantidades) {
+		return new EstoqueRequisicaoDTO(produtosIds.stream().mapToLong(Long::longValue).toArray(),
+				produtosQuantidades.stream().mapToLong(Long::longValue).toArray());
+	}
+}
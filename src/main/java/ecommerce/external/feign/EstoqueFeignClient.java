@@ -0,0 +1,27 @@
+package ecommerce.external.feign;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import ecommerce.dto.DisponibilidadeDTO;
+import ecommerce.dto.EstoqueBaixaDTO;
+import ecommerce.dto.EstoqueRequisicaoDTO;
+import feign.Request;
+
+@FeignClient(name = "estoque", url = "${estoque.url}")
+public interface EstoqueFeignClient {
+
+	@PostMapping("/estoque/baixa")
+	EstoqueBaixaDTO darBaixa(@RequestBody EstoqueRequisicaoDTO requisicao);
+
+	@PostMapping("/estoque/disponibilidade")
+	DisponibilidadeDTO verificarDisponibilidade(@RequestBody EstoqueRequisicaoDTO requisicao);
+
+	// Request.Options como parâmetro substitui os timeouts configurados apenas nesta chamada
+	@PostMapping("/estoque/baixa")
+	EstoqueBaixaDTO darBaixa(@RequestBody EstoqueRequisicaoDTO requisicao, Request.Options opcoes);
+
+	@PostMapping("/estoque/disponibilidade")
+	DisponibilidadeDTO verificarDisponibilidade(@RequestBody EstoqueRequisicaoDTO requisicao, Request.Options opcoes);
+}
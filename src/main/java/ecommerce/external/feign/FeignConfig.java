@@ -0,0 +1,22 @@
+package ecommerce.external.feign;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import feign.RequestInterceptor;
+
+// Clientes reais de estoque e pagamento; pool, timeouts e métricas ficam em application-feign.properties
+@Configuration
+@Profile("feign")
+@EnableFeignClients(clients = { EstoqueFeignClient.class, PagamentoFeignClient.class })
+public class FeignConfig {
+
+	@Bean
+	public RequestInterceptor compressaoRequisicaoInterceptor(
+			@Value("${feign.compressao.tamanho-minimo:1024}") int tamanhoMinimo) {
+		return new CompressaoRequisicaoInterceptor(tamanhoMinimo);
+	}
+}
@@ -0,0 +1,56 @@
+package ecommerce.external.feign;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import ecommerce.dto.PagamentoDTO;
+import ecommerce.external.IPagamentoExternal;
+import ecommerce.external.Prazo;
+import feign.Request;
+
+@Service
+@Profile("feign")
+public class PagamentoFeign implements IPagamentoExternal {
+
+	private final PagamentoFeignClient client;
+	private final long connectTimeoutMs;
+	private final long readTimeoutMs;
+
+	@Autowired
+	public PagamentoFeign(PagamentoFeignClient client,
+			@Value("${spring.cloud.openfeign.client.config.pagamento.connect-timeout:500}") long connectTimeoutMs,
+			@Value("${spring.cloud.openfeign.client.config.pagamento.read-timeout:3000}") long readTimeoutMs) {
+		this.client = client;
+		this.connectTimeoutMs = connectTimeoutMs;
+		this.readTimeoutMs = readTimeoutMs;
+	}
+
+	@Override
+	public PagamentoDTO autorizarPagamento(Long clienteId, Double custoTotal) {
+		return client.autorizarPagamento(clienteId, custoTotal);
+	}
+
+	@Override
+	public void cancelarPagamento(Long clienteId, Long pagamentoTransacaoId) {
+		client.cancelarPagamento(clienteId, pagamentoTransacaoId);
+	}
+
+	@Override
+	public PagamentoDTO autorizarPagamento(Long clienteId, Double custoTotal, Prazo prazo) {
+		return client.autorizarPagamento(clienteId, custoTotal, opcoes(prazo));
+	}
+
+	@Override
+	public void cancelarPagamento(Long clienteId, Long pagamentoTransacaoId, Prazo prazo) {
+		client.cancelarPagamento(clienteId, pagamentoTransacaoId, opcoes(prazo));
+	}
+
+	private Request.Options opcoes(Prazo prazo) {
+		return new Request.Options(prazo.limitarMillis(connectTimeoutMs), TimeUnit.MILLISECONDS,
+				prazo.limitarMillis(readTimeoutMs), TimeUnit.MILLISECONDS, true);
+	}
+}
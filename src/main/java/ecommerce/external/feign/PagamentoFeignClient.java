@@ -0,0 +1,29 @@
+package ecommerce.external.feign;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import ecommerce.dto.PagamentoDTO;
+import feign.Request;
+
+@FeignClient(name = "pagamento", url = "${pagamento.url}")
+public interface PagamentoFeignClient {
+
+	@PostMapping("/pagamento/autorizar")
+	PagamentoDTO autorizarPagamento(@RequestParam("clienteId") Long clienteId,
+			@RequestParam("custoTotal") Double custoTotal);
+
+	@PostMapping("/pagamento/cancelar")
+	void cancelarPagamento(@RequestParam("clienteId") Long clienteId,
+			@RequestParam("pagamentoTransacaoId") Long pagamentoTransacaoId);
+
+	// Request.Options como parâmetro substitui os timeouts configurados apenas nesta chamada
+	@PostMapping("/pagamento/autorizar")
+	PagamentoDTO autorizarPagamento(@RequestParam("clienteId") Long clienteId,
+			@RequestParam("custoTotal") Double custoTotal, Request.Options opcoes);
+
+	@PostMapping("/pagamento/cancelar")
+	void cancelarPagamento(@RequestParam("clienteId") Long clienteId,
+			@RequestParam("pagamentoTransacaoId") Long pagamentoTransacaoId, Request.Options opcoes);
+}
@@ -0,0 +1,237 @@
+package ecommerce.external.hedging;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import ecommerce.dto.DisponibilidadeDTO;
+import ecommerce.dto.EstoqueBaixaDTO;
+import ecommerce.external.IEstoqueExternal;
+import ecommerce.external.LoteEstoque;
+import ecommerce.external.Prazo;
+import ecommerce.external.PrazoExpiradoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Decorador que envia uma segunda consulta de disponibilidade idêntica quando a primeira
+// passa do percentil de latência observado, ficando com a resposta que chegar primeiro.
+// Só a consulta (sem efeitos colaterais) é duplicada; darBaixa vai direto ao delegate.
+// A consulta original é cancelada quando o hedge vence (ou o prazo acaba) e entra no percentil com
+// a latência censurada no cancelamento: um limite inferior, que já passa do atraso de hedge. Uma
+// original que ignora a interrupção continua ocupando thread do pool, e threadLivre() não duplica
+// nada enquanto o pool estiver cheio.
+public class EstoqueComHedging implements IEstoqueExternal, DisposableBean {
+
+	// Créditos em milésimos de hedge: cada consulta acumula taxaMaxima e cada hedge gasta 1
+	private static final long CUSTO_HEDGE = 1_000;
+	private static final long CREDITO_MAXIMO = 10 * CUSTO_HEDGE;
+	private static final long RECALCULO_MS = 500;
+
+	private final IEstoqueExternal delegate;
+	private final LatenciaAdaptativa latencias;
+	private final long creditoPorConsulta;
+	private final AtomicLong creditos = new AtomicLong();
+	private final int maxThreads;
+	private final ThreadPoolExecutor executor;
+	private final ScheduledExecutorService recalculo;
+
+	private final Counter enviados;
+	private final Counter vencidos;
+
+	public EstoqueComHedging(IEstoqueExternal delegate, double percentil, long atrasoInicialMs, long atrasoMinimoMs,
+			double taxaMaxima, int maxThreads, MeterRegistry meterRegistry) {
+		this.delegate = delegate;
+		this.latencias = new LatenciaAdaptativa(1_000, percentil, TimeUnit.MILLISECONDS.toNanos(atrasoInicialMs),
+				TimeUnit.MILLISECONDS.toNanos(atrasoMinimoMs));
+		this.creditoPorConsulta = Math.round(taxaMaxima * CUSTO_HEDGE);
+
+		// Limitado: sem thread livre a consulta roda na própria thread do chamador
+		AtomicInteger contador = new AtomicInteger();
+		this.maxThreads = maxThreads;
+		this.executor = new ThreadPoolExecutor(0, maxThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+			Thread thread = new Thread(r, "estoque-hedging-" + contador.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}, new ThreadPoolExecutor.CallerRunsPolicy());
+
+		// O percentil é recalculado aqui, nunca na thread de uma consulta
+		this.recalculo = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "estoque-hedging-latencias");
+			thread.setDaemon(true);
+			return thread;
+		});
+		recalculo.scheduleWithFixedDelay(latencias::recalcular, RECALCULO_MS, RECALCULO_MS, TimeUnit.MILLISECONDS);
+
+		this.enviados = Counter.builder("estoque.hedging.enviados")
+				.description("Consultas de disponibilidade duplicadas")
+				.register(meterRegistry);
+		this.vencidos = Counter.builder("estoque.hedging.vencidos")
+				.description("Consultas duplicadas que responderam antes da original")
+				.register(meterRegistry);
+		Gauge.builder("estoque.hedging.atraso", latencias, l -> l.atrasoNanos() / 1e6)
+				.baseUnit("milliseconds")
+				.register(meterRegistry);
+	}
+
+	@Override
+	public EstoqueBaixaDTO darBaixa(List<Long> produtosIds, List<Long> produtosQuantidades) {
+		return delegate.darBaixa(produtosIds, produtosQuantidades);
+	}
+
+	@Override
+	public EstoqueBaixaDTO darBaixa(LoteEstoque lote) {
+		return delegate.darBaixa(lote);
+	}
+
+	@Override
+	public DisponibilidadeDTO verificarDisponibilidade(List<Long> produtosIds, List<Long> produtosQuantidades) {
+		return comHedge(() -> delegate.verificarDisponibilidade(produtosIds, produtosQuantidades));
+	}
+
+	@Override
+	public DisponibilidadeDTO verificarDisponibilidade(LoteEstoque lote) {
+		return comHedge(() -> delegate.verificarDisponibilidade(lote));
+	}
+
+	@Override
+	public EstoqueBaixaDTO darBaixa(LoteEstoque lote, Prazo prazo) {
+		return delegate.darBaixa(lote, prazo);
+	}
+
+	@Override
+	public DisponibilidadeDTO verificarDisponibilidade(LoteEstoque lote, Prazo prazo) {
+		return comHedge(() -> delegate.verificarDisponibilidade(lote, prazo), prazo);
+	}
+
+	@Override
+	public void destroy() {
+		recalculo.shutdownNow();
+		executor.shutdownNow();
+	}
+
+	private DisponibilidadeDTO comHedge(Callable<DisponibilidadeDTO> consulta) {
+		return comHedge(consulta, null);
+	}
+
+	// Com prazo, a espera pelas respostas não passa do tempo restante e nenhum hedge é enviado
+	// quando o atraso de hedge já consumiria o que sobra dele.
+	private DisponibilidadeDTO comHedge(Callable<DisponibilidadeDTO> consulta, Prazo prazo) {
+		acumularCredito();
+		CompletionService<DisponibilidadeDTO> respostas = new ExecutorCompletionService<>(executor);
+		long inicio = System.nanoTime();
+		AtomicBoolean medida = new AtomicBoolean();
+		Future<DisponibilidadeDTO> original = respostas.submit(() -> {
+			try {
+				return consulta.call();
+			} finally {
+				registrarLatencia(medida, inicio);
+			}
+		});
+		Future<DisponibilidadeDTO> hedge = null;
+
+		try {
+			Future<DisponibilidadeDTO> primeira = respostas.poll(limitar(latencias.atrasoNanos(), prazo),
+					TimeUnit.NANOSECONDS);
+			if (primeira == null) {
+				if ((prazo == null || prazo.restanteNanos() > 0) && threadLivre() && consumirCredito()) {
+					hedge = respostas.submit(consulta);
+					enviados.increment();
+				}
+				primeira = aguardar(respostas, prazo);
+			}
+
+			DisponibilidadeDTO resposta;
+			try {
+				resposta = primeira.get();
+			} catch (ExecutionException e) {
+				// Se a primeira resposta foi um erro e a outra consulta ainda está em andamento, aguarda por ela
+				if (hedge == null) {
+					throw e;
+				}
+				primeira = aguardar(respostas, prazo);
+				resposta = primeira.get();
+			}
+
+			if (primeira == hedge) {
+				vencidos.increment();
+			}
+			return resposta;
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException causa) {
+				throw causa;
+			}
+			throw new IllegalStateException("Erro ao consultar disponibilidade no estoque.", e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Consulta de disponibilidade interrompida.", e);
+		} finally {
+			if (hedge != null) {
+				hedge.cancel(true);
+			}
+			if (!original.isDone()) {
+				registrarLatencia(medida, inicio);
+				original.cancel(true);
+			}
+		}
+	}
+
+	// Registra uma única vez: ou a original terminou, ou foi cancelada antes (latência censurada)
+	private void registrarLatencia(AtomicBoolean medida, long inicio) {
+		if (medida.compareAndSet(false, true)) {
+			latencias.registrar(System.nanoTime() - inicio);
+		}
+	}
+
+	// Um hedge sem thread livre rodaria na thread do chamador e atrasaria a resposta em vez de adiantá-la.
+	// Só é consultado quando um hedge seria enviado, não a cada consulta.
+	private boolean threadLivre() {
+		return executor.getActiveCount() < maxThreads;
+	}
+
+	private static long limitar(long nanos, Prazo prazo) {
+		return prazo == null ? nanos : Math.min(nanos, prazo.restanteNanos());
+	}
+
+	private static Future<DisponibilidadeDTO> aguardar(CompletionService<DisponibilidadeDTO> respostas, Prazo prazo)
+			throws InterruptedException {
+		if (prazo == null) {
+			return respostas.take();
+		}
+		Future<DisponibilidadeDTO> resposta = respostas.poll(prazo.restanteNanos(), TimeUnit.NANOSECONDS);
+		if (resposta == null) {
+			throw new PrazoExpiradoException("Prazo da compra esgotado aguardando o estoque.");
+		}
+		return resposta;
+	}
+
+	private void acumularCredito() {
+		if (creditos.get() < CREDITO_MAXIMO) {
+			creditos.getAndUpdate(c -> Math.min(CREDITO_MAXIMO, c + creditoPorConsulta));
+		}
+	}
+
+	private boolean consumirCredito() {
+		long atual;
+		do {
+			atual = creditos.get();
+			if (atual < CUSTO_HEDGE) {
+				return false;
+			}
+		} while (!creditos.compareAndSet(atual, atual - CUSTO_HEDGE));
+		return true;
+	}
+}
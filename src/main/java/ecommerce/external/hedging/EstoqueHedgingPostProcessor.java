@@ -0,0 +1,54 @@
+package ecommerce.external.hedging;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import ecommerce.external.IEstoqueExternal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Envolve a implementação de IEstoqueExternal (simulada ou Feign) com EstoqueComHedging.
+// Ordem baixa: fica mais perto da chamada remota do que outros decoradores de estoque.
+@Component
+@ConditionalOnProperty(prefix = "estoque.hedging", name = "enabled", havingValue = "true")
+public class EstoqueHedgingPostProcessor implements BeanPostProcessor, Ordered {
+
+	private final ObjectProvider<MeterRegistry> meterRegistry;
+	private final double percentil;
+	private final long atrasoInicialMs;
+	private final long atrasoMinimoMs;
+	private final double taxaMaxima;
+	private final int maxThreads;
+
+	public EstoqueHedgingPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+			@Value("${estoque.hedging.percentil:0.95}") double percentil,
+			@Value("${estoque.hedging.atraso-inicial-ms:50}") long atrasoInicialMs,
+			@Value("${estoque.hedging.atraso-minimo-ms:5}") long atrasoMinimoMs,
+			@Value("${estoque.hedging.taxa-maxima:0.05}") double taxaMaxima,
+			@Value("${estoque.hedging.max-threads:64}") int maxThreads) {
+		this.meterRegistry = meterRegistry;
+		this.percentil = percentil;
+		this.atrasoInicialMs = atrasoInicialMs;
+		this.atrasoMinimoMs = atrasoMinimoMs;
+		this.taxaMaxima = taxaMaxima;
+		this.maxThreads = maxThreads;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof IEstoqueExternal estoque && !(bean instanceof EstoqueComHedging)) {
+			return new EstoqueComHedging(estoque, percentil, atrasoInicialMs, atrasoMinimoMs, taxaMaxima, maxThreads,
+					meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+		}
+		return bean;
+	}
+
+	@Override
+	public int getOrder() {
+		return 0;
+	}
+}
@@ -0,0 +1,51 @@
+package ecommerce.external.hedging;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Janela circular das últimas latências observadas; o atraso do hedge é o percentil
+// configurado dessa janela, recalculado periodicamente por uma thread de fundo.
+class LatenciaAdaptativa {
+
+	private final AtomicLongArray amostras;
+	private final AtomicLong total = new AtomicLong();
+	private final double percentil;
+	private final long minimoNanos;
+	private volatile long atrasoNanos;
+	// Só lido e escrito pela thread que recalcula
+	private long totalNoUltimoCalculo;
+
+	LatenciaAdaptativa(int janela, double percentil, long inicialNanos, long minimoNanos) {
+		this.amostras = new AtomicLongArray(janela);
+		this.percentil = percentil;
+		this.minimoNanos = minimoNanos;
+		this.atrasoNanos = Math.max(inicialNanos, minimoNanos);
+	}
+
+	void registrar(long nanos) {
+		long posicao = total.getAndIncrement();
+		amostras.set((int) (posicao % amostras.length()), nanos);
+	}
+
+	long atrasoNanos() {
+		return atrasoNanos;
+	}
+
+	void recalcular() {
+		long registradas = total.get();
+		if (registradas == totalNoUltimoCalculo) {
+			return;
+		}
+		totalNoUltimoCalculo = registradas;
+
+		int quantidade = (int) Math.min(registradas, amostras.length());
+		long[] copia = new long[quantidade];
+		for (int i = 0; i < quantidade; i++) {
+			copia[i] = amostras.get(i);
+		}
+		Arrays.sort(copia);
+		int indice = Math.max(0, (int) Math.ceil(percentil * quantidade) - 1);
+		atrasoNanos = Math.max(minimoNanos, copia[indice]);
+	}
+}
@@ -0,0 +1,132 @@
+package ecommerce.jfr;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+// Lê uma gravação JFR e produz a latência por etapa do checkout, junto com o tempo de pausa
+// de GC e de bloqueio (monitor/park na mesma thread) que se sobrepôs a cada etapa.
+// Uso: java -cp <classpath> ecommerce.jfr.AnaliseEtapasCompra gravacao.jfr
+public final class AnaliseEtapasCompra {
+
+	private static final String PAUSA_GC = "jdk.GCPhasePause";
+	private static final Set<String> EVENTOS_BLOQUEIO = Set.of("jdk.JavaMonitorEnter", "jdk.ThreadPark");
+
+	public record EstatisticaEtapa(String etapa, int quantidade, int falhas, long p50Nanos, long p99Nanos,
+			long maxNanos, long gcNanos, long bloqueioNanos) {
+	}
+
+	private record Intervalo(long inicio, long fim) {
+	}
+
+	private AnaliseEtapasCompra() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 1) {
+			System.err.println("Uso: AnaliseEtapasCompra <gravacao.jfr>");
+			System.exit(1);
+		}
+
+		System.out.printf("%-16s %8s %7s %9s %9s %9s %9s %13s%n", "etapa", "n", "falhas", "p50(ms)", "p99(ms)",
+				"max(ms)", "gc(ms)", "bloqueio(ms)");
+		for (EstatisticaEtapa e : analisar(Path.of(args[0]))) {
+			System.out.printf("%-16s %8d %7d %9.2f %9.2f %9.2f %9.2f %13.2f%n", e.etapa(), e.quantidade(), e.falhas(),
+					e.p50Nanos() / 1e6, e.p99Nanos() / 1e6, e.maxNanos() / 1e6, e.gcNanos() / 1e6,
+					e.bloqueioNanos() / 1e6);
+		}
+	}
+
+	public static List<EstatisticaEtapa> analisar(Path gravacao) throws IOException {
+		Map<String, List<RecordedEvent>> porEtapa = new LinkedHashMap<>();
+		for (EtapaCompra etapa : EtapaCompra.values()) {
+			porEtapa.put(etapa.name(), new ArrayList<>());
+		}
+		List<Intervalo> pausasGc = new ArrayList<>();
+		Map<Long, List<Intervalo>> bloqueiosPorThread = new HashMap<>();
+
+		try (RecordingFile arquivo = new RecordingFile(gravacao)) {
+			while (arquivo.hasMoreEvents()) {
+				RecordedEvent evento = arquivo.readEvent();
+				String tipo = evento.getEventType().getName();
+
+				if (EtapaCompraEvent.NOME.equals(tipo)) {
+					porEtapa.computeIfAbsent(evento.getString("etapa"), k -> new ArrayList<>()).add(evento);
+				} else if (PAUSA_GC.equals(tipo)) {
+					pausasGc.add(intervalo(evento));
+				} else if (EVENTOS_BLOQUEIO.contains(tipo) && evento.getThread() != null) {
+					bloqueiosPorThread.computeIfAbsent(evento.getThread().getJavaThreadId(), k -> new ArrayList<>())
+							.add(intervalo(evento));
+				}
+			}
+		}
+
+		List<EstatisticaEtapa> estatisticas = new ArrayList<>();
+		for (Map.Entry<String, List<RecordedEvent>> entrada : porEtapa.entrySet()) {
+			List<RecordedEvent> eventos = entrada.getValue();
+			if (eventos.isEmpty()) {
+				continue;
+			}
+
+			long[] duracoes = new long[eventos.size()];
+			int falhas = 0;
+			long gc = 0;
+			long bloqueio = 0;
+			for (int i = 0; i < duracoes.length; i++) {
+				RecordedEvent evento = eventos.get(i);
+				Intervalo etapa = intervalo(evento);
+				duracoes[i] = evento.getDuration().toNanos();
+				if (!RegistroEtapasCompra.SUCESSO.equals(evento.getString("resultado"))) {
+					falhas++;
+				}
+				gc += sobreposicao(etapa, pausasGc);
+
+				RecordedThread thread = evento.getThread();
+				if (thread != null) {
+					bloqueio += sobreposicao(etapa, bloqueiosPorThread.getOrDefault(thread.getJavaThreadId(), List.of()));
+				}
+			}
+			Arrays.sort(duracoes);
+
+			estatisticas.add(new EstatisticaEtapa(entrada.getKey(), duracoes.length, falhas, percentil(duracoes, 0.50),
+					percentil(duracoes, 0.99), duracoes[duracoes.length - 1], gc, bloqueio));
+		}
+		return estatisticas;
+	}
+
+	private static long percentil(long[] ordenados, double p) {
+		int indice = (int) Math.ceil(p * ordenados.length) - 1;
+		return ordenados[Math.max(0, Math.min(ordenados.length - 1, indice))];
+	}
+
+	private static long sobreposicao(Intervalo etapa, List<Intervalo> intervalos) {
+		long total = 0;
+		for (Intervalo outro : intervalos) {
+			long inicio = Math.max(etapa.inicio(), outro.inicio());
+			long fim = Math.min(etapa.fim(), outro.fim());
+			if (fim > inicio) {
+				total += fim - inicio;
+			}
+		}
+		return total;
+	}
+
+	private static Intervalo intervalo(RecordedEvent evento) {
+		return new Intervalo(nanos(evento.getStartTime()), nanos(evento.getEndTime()));
+	}
+
+	private static long nanos(Instant instante) {
+		return instante.getEpochSecond() * 1_000_000_000L + instante.getNano();
+	}
+}
@@ -0,0 +1,9 @@
+package ecommerce.jfr;
+
+public enum EtapaCompra {
+	CARREGAMENTO,
+	DISPONIBILIDADE,
+	CALCULO_CUSTO,
+	PAGAMENTO,
+	BAIXA_ESTOQUE;
+}
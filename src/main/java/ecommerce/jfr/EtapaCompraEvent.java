@@ -0,0 +1,36 @@
+package ecommerce.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(EtapaCompraEvent.NOME)
+@Label("Etapa de Compra")
+@Description("Duração de uma etapa de CompraService.finalizarCompra")
+@Category({ "eCommerce", "Checkout" })
+@StackTrace(false)
+public class EtapaCompraEvent extends Event {
+
+	public static final String NOME = "ecommerce.EtapaCompra";
+
+	@Label("Etapa")
+	String etapa;
+
+	@Label("Carrinho")
+	long carrinhoId;
+
+	@Label("Quantidade de Itens")
+	int quantidadeItens;
+
+	@Label("Peso Total (kg)")
+	long pesoTotal;
+
+	@Label("Tipo de Cliente")
+	String tipoCliente;
+
+	@Label("Resultado")
+	String resultado;
+}
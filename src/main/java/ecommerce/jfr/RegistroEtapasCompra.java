@@ -0,0 +1,77 @@
+package ecommerce.jfr;
+
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import ecommerce.dto.CarrinhoCheckoutDTO;
+import ecommerce.dto.ItemCheckoutDTO;
+import jdk.jfr.FlightRecorder;
+
+// Emite um EtapaCompraEvent por etapa do checkout. Os eventos só são gravados quando há uma
+// gravação JFR ativa (ex.: -XX:StartFlightRecording); desabilitado, executa a etapa diretamente.
+@Component
+public class RegistroEtapasCompra {
+
+	public static final String SUCESSO = "SUCESSO";
+	public static final String RECUSADO = "RECUSADO";
+	public static final String ERRO = "ERRO";
+
+	private final boolean habilitado;
+
+	public RegistroEtapasCompra(@Value("${compra.jfr.enabled:false}") boolean habilitado) {
+		this.habilitado = habilitado;
+		if (habilitado) {
+			FlightRecorder.register(EtapaCompraEvent.class);
+		}
+	}
+
+	public <T> T executar(EtapaCompra etapa, Long carrinhoId, CarrinhoCheckoutDTO carrinho, Supplier<T> acao) {
+		return executar(etapa, carrinhoId, carrinho, acao, r -> true);
+	}
+
+	public <T> T executar(EtapaCompra etapa, Long carrinhoId, CarrinhoCheckoutDTO carrinho, Supplier<T> acao,
+			Predicate<T> sucesso) {
+		if (!habilitado) {
+			return acao.get();
+		}
+
+		EtapaCompraEvent evento = new EtapaCompraEvent();
+		if (!evento.isEnabled()) {
+			return acao.get();
+		}
+
+		String resultado = ERRO;
+		evento.begin();
+		try {
+			T retorno = acao.get();
+			resultado = retorno != null && sucesso.test(retorno) ? SUCESSO : RECUSADO;
+			return retorno;
+		} finally {
+			evento.end();
+			if (evento.shouldCommit()) {
+				preencher(evento, etapa, carrinhoId, carrinho, resultado);
+				evento.commit();
+			}
+		}
+	}
+
+	private static void preencher(EtapaCompraEvent evento, EtapaCompra etapa, Long carrinhoId,
+			CarrinhoCheckoutDTO carrinho, String resultado) {
+		evento.etapa = etapa.name();
+		evento.carrinhoId = carrinhoId != null ? carrinhoId : -1;
+		evento.resultado = resultado;
+
+		if (carrinho != null) {
+			long pesoTotal = 0;
+			for (ItemCheckoutDTO item : carrinho.itens()) {
+				pesoTotal += (long) item.peso() * item.quantidade();
+			}
+			evento.quantidadeItens = carrinho.itens().size();
+			evento.pesoTotal = pesoTotal;
+			evento.tipoCliente = carrinho.tipoCliente().name();
+		}
+	}
+}
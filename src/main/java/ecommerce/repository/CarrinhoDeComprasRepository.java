@@ -1,10 +1,14 @@
 package ecommerce.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import ecommerce.dto.ItemCheckoutDTO;
 import ecommerce.entity.CarrinhoDeCompras;
 import ecommerce.entity.Cliente;
 
@@ -12,4 +16,11 @@ import ecommerce.entity.Cliente;
 public interface CarrinhoDeComprasRepository extends JpaRepository<CarrinhoDeCompras, Long> {
 
     Optional<CarrinhoDeCompras> findByIdAndCliente(Long id, Cliente cliente);
+
+    boolean existsByIdAndClienteId(Long id, Long clienteId);
+
+    // Projeção por construtor: nenhuma entidade entra no contexto de persistência
+    @Query("SELECT new ecommerce.dto.ItemCheckoutDTO(p.id, i.quantidade, p.preco, p.peso, p.tipo) "
+            + "FROM CarrinhoDeCompras c JOIN c.itens i JOIN i.produto p WHERE c.id = :carrinhoId ORDER BY i.id")
+    List<ItemCheckoutDTO> findItensCheckout(@Param("carrinhoId") Long carrinhoId);
 }
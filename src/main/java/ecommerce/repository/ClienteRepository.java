@@ -1,10 +1,18 @@
 package ecommerce.repository;
 
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import ecommerce.entity.Cliente;
+import ecommerce.entity.TipoCliente;
 
 @Repository
 public interface ClienteRepository extends JpaRepository<Cliente, Long> {
-}
\ No newline at end of file
+
+    @Query("SELECT c.tipo FROM Cliente c WHERE c.id = :id")
+    Optional<TipoCliente> findTipoById(@Param("id") Long id);
+}
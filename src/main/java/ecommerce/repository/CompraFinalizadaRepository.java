@@ -0,0 +1,24 @@
+package ecommerce.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import ecommerce.dto.LinhaReconciliacaoDTO;
+import ecommerce.entity.CompraFinalizada;
+
+@Repository
+public interface CompraFinalizadaRepository extends JpaRepository<CompraFinalizada, Long> {
+
+    // Itens das compras finalizadas no dia, agrupáveis por compraId (ordenados por compra). Só lê o
+    // histórico gravado no checkout: preços, pesos e tipos atuais do catálogo não entram.
+    @Query("SELECT new ecommerce.dto.LinhaReconciliacaoDTO(f.id, f.carrinhoId, f.clienteId, f.tipoCliente, "
+            + "f.custoProdutos, f.desconto, f.frete, f.fatorDesconto, i.produtoId, i.quantidade, i.preco, i.peso, "
+            + "i.tipoProduto) FROM CompraFinalizada f LEFT JOIN ItemCompraFinalizada i ON i.compraFinalizadaId = f.id "
+            + "WHERE f.data = :dia ORDER BY f.id, i.id")
+    List<LinhaReconciliacaoDTO> findItensFinalizadosNoDia(@Param("dia") LocalDate dia);
+}
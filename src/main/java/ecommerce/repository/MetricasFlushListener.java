@@ -0,0 +1,43 @@
+package ecommerce.repository;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionEventListener;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+
+// Uma instância por sessão do Hibernate (ver MetricasFlushPostProcessor). Ao fechar a sessão registra
+// o tempo total de flush e quantas entidades foram verificadas (dirty checking) — zero no checkout,
+// que só carrega projeções em transação somente leitura.
+public class MetricasFlushListener implements SessionEventListener {
+
+    private final Timer tempoFlush;
+    private final DistributionSummary entidadesFlush;
+
+    private long inicioFlush;
+    private long flushNanos;
+    private long entidades;
+
+    public MetricasFlushListener(Timer tempoFlush, DistributionSummary entidadesFlush) {
+        this.tempoFlush = tempoFlush;
+        this.entidadesFlush = entidadesFlush;
+    }
+
+    @Override
+    public void flushStart() {
+        inicioFlush = System.nanoTime();
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        flushNanos += System.nanoTime() - inicioFlush;
+        entidades += numberOfEntities;
+    }
+
+    @Override
+    public void end() {
+        tempoFlush.record(flushNanos, TimeUnit.NANOSECONDS);
+        entidadesFlush.record(entidades);
+    }
+}
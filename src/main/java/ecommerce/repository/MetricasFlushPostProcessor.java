@@ -0,0 +1,54 @@
+package ecommerce.repository;
+
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Anexa um MetricasFlushListener a cada EntityManager criado pela fábrica JPA. Os medidores vêm do
+// MeterRegistry da aplicação e são resolvidos na primeira sessão, quando o registry já existe.
+@Component
+public class MetricasFlushPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private volatile Timer tempoFlush;
+    private volatile DistributionSummary entidadesFlush;
+
+    public MetricasFlushPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof AbstractEntityManagerFactoryBean fabrica) {
+            fabrica.setEntityManagerInitializer(entityManager ->
+                    entityManager.unwrap(Session.class).addEventListeners(novoListener()));
+        }
+        return bean;
+    }
+
+    private MetricasFlushListener novoListener() {
+        if (entidadesFlush == null) {
+            registrarMedidores();
+        }
+        return new MetricasFlushListener(tempoFlush, entidadesFlush);
+    }
+
+    private synchronized void registrarMedidores() {
+        if (entidadesFlush != null) {
+            return;
+        }
+        MeterRegistry registry = meterRegistry.getObject();
+        tempoFlush = Timer.builder("jpa.sessao.flush")
+                .description("Tempo total de flush por sessão")
+                .register(registry);
+        entidadesFlush = DistributionSummary.builder("jpa.sessao.flush.entidades")
+                .description("Entidades verificadas nos flushes da sessão")
+                .register(registry);
+    }
+}
@@ -0,0 +1,142 @@
+package ecommerce.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ecommerce.dto.ArquivamentoDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Move carrinhos anteriores à data de corte (e seus itens) para as tabelas de arquivo em lotes
+// pequenos, cada um na sua transação curta e com pausa entre lotes, para não disputar com os checkouts.
+@Service
+public class ArquivamentoCarrinhosService {
+
+	private static final Logger log = LoggerFactory.getLogger(ArquivamentoCarrinhosService.class);
+
+	private static final String SELECIONAR_CARRINHOS = "SELECT id FROM carrinho_de_compras WHERE data < ? ORDER BY id LIMIT ?";
+	private static final String ARQUIVAR_CARRINHOS = "INSERT INTO carrinho_de_compras_arquivado (id, cliente_id, data) "
+			+ "SELECT id, cliente_id, data FROM carrinho_de_compras WHERE id IN (:ids)";
+	private static final String ARQUIVAR_ITENS = "INSERT INTO item_compra_arquivado (id, carrinho_id, produto_id, quantidade) "
+			+ "SELECT id, carrinho_id, produto_id, quantidade FROM item_compra WHERE carrinho_id IN (:ids)";
+	private static final String REMOVER_ITENS = "DELETE FROM item_compra WHERE carrinho_id IN (:ids)";
+	private static final String REMOVER_CARRINHOS = "DELETE FROM carrinho_de_compras WHERE id IN (:ids)";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final NamedParameterJdbcTemplate namedJdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+
+	private final boolean habilitado;
+	private final int tamanhoLote;
+	private final long pausaMs;
+	private final int maxLotes;
+	private final int retencaoDias;
+
+	private final Counter carrinhosArquivados;
+	private final Counter itensArquivados;
+	private final AtomicLong linhasPorSegundo = new AtomicLong();
+
+	@Autowired
+	public ArquivamentoCarrinhosService(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate,
+			PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+			@Value("${carrinho.arquivamento.enabled:false}") boolean habilitado,
+			@Value("${carrinho.arquivamento.tamanho-lote:500}") int tamanhoLote,
+			@Value("${carrinho.arquivamento.pausa-ms:200}") long pausaMs,
+			@Value("${carrinho.arquivamento.max-lotes-por-execucao:1000}") int maxLotes,
+			@Value("${carrinho.arquivamento.retencao-dias:180}") int retencaoDias) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.namedJdbcTemplate = namedJdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.habilitado = habilitado;
+		this.tamanhoLote = tamanhoLote;
+		this.pausaMs = pausaMs;
+		this.maxLotes = maxLotes;
+		this.retencaoDias = retencaoDias;
+
+		this.carrinhosArquivados = Counter.builder("carrinho.arquivamento.carrinhos").register(meterRegistry);
+		this.itensArquivados = Counter.builder("carrinho.arquivamento.itens").register(meterRegistry);
+		Gauge.builder("carrinho.arquivamento.linhas-por-segundo", linhasPorSegundo, AtomicLong::get)
+				.description("Vazão da última execução do arquivamento")
+				.register(meterRegistry);
+	}
+
+	@Scheduled(fixedDelayString = "${carrinho.arquivamento.intervalo-ms:3600000}",
+			initialDelayString = "${carrinho.arquivamento.intervalo-ms:3600000}")
+	public void arquivarAgendado() {
+		if (habilitado) {
+			arquivar(LocalDate.now().minusDays(retencaoDias));
+		}
+	}
+
+	public ArquivamentoDTO arquivar(LocalDate corte) {
+		long inicio = System.nanoTime();
+		long carrinhos = 0;
+		long itens = 0;
+		int lotes = 0;
+
+		while (lotes < maxLotes) {
+			List<Long> ids = jdbcTemplate.queryForList(SELECIONAR_CARRINHOS, Long.class, corte, tamanhoLote);
+			if (ids.isEmpty()) {
+				break;
+			}
+
+			int itensLote = transactionTemplate.execute(status -> {
+				Map<String, List<Long>> parametros = Map.of("ids", ids);
+				namedJdbcTemplate.update(ARQUIVAR_CARRINHOS, parametros);
+				int movidos = namedJdbcTemplate.update(ARQUIVAR_ITENS, parametros);
+				namedJdbcTemplate.update(REMOVER_ITENS, parametros);
+				namedJdbcTemplate.update(REMOVER_CARRINHOS, parametros);
+				return movidos;
+			});
+
+			carrinhos += ids.size();
+			itens += itensLote;
+			lotes++;
+			carrinhosArquivados.increment(ids.size());
+			itensArquivados.increment(itensLote);
+
+			if (lotes % 100 == 0) {
+				log.info("Arquivamento em andamento: {} carrinhos e {} itens em {} lotes", carrinhos, itens, lotes);
+			}
+			if (ids.size() < tamanhoLote || !pausar()) {
+				break;
+			}
+		}
+
+		long duracaoNanos = System.nanoTime() - inicio;
+		double porSegundo = duracaoNanos > 0 ? (carrinhos + itens) * 1e9 / duracaoNanos : 0;
+		linhasPorSegundo.set(Math.round(porSegundo));
+		log.info("Arquivamento concluído (corte {}): {} carrinhos e {} itens em {} lotes ({} linhas/s)", corte,
+				carrinhos, itens, lotes, Math.round(porSegundo));
+
+		return new ArquivamentoDTO(carrinhos, itens, lotes, duracaoNanos / 1_000_000, porSegundo);
+	}
+
+	private boolean pausar() {
+		if (pausaMs <= 0) {
+			return true;
+		}
+		try {
+			TimeUnit.MILLISECONDS.sleep(pausaMs);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+}
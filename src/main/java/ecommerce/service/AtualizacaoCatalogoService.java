@@ -0,0 +1,178 @@
+package ecommerce.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ecommerce.dto.AtualizacaoLoteDTO;
+import ecommerce.event.ProdutosAtualizadosEvent;
+
+@Service
+public class AtualizacaoCatalogoService {
+
+	private static final Logger log = LoggerFactory.getLogger(AtualizacaoCatalogoService.class);
+	private static final String ATUALIZAR_PRODUTO = "UPDATE produto SET preco = ?, peso = ? WHERE id = ?";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final ApplicationEventPublisher eventPublisher;
+	private final int tamanhoLote;
+
+	@Autowired
+	public AtualizacaoCatalogoService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+			ApplicationEventPublisher eventPublisher,
+			@Value("${catalogo.atualizacao.tamanho-lote:1000}") int tamanhoLote) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.eventPublisher = eventPublisher;
+		this.tamanhoLote = tamanhoLote;
+	}
+
+	// Lê registros "id,preco,peso" (um por linha) e grava em lotes JDBC, cada lote na sua transação.
+	// Lotes já gravados permanecem se um registro inválido ou um erro interromper a leitura; a
+	// invalidação dos produtos desses lotes é publicada mesmo nesse caso.
+	public AtualizacaoLoteDTO atualizar(Reader registros) {
+		long inicio = System.nanoTime();
+		Lote lote = new Lote(tamanhoLote);
+		long[] alterados = new long[tamanhoLote];
+		long lidos = 0;
+		long atualizados = 0;
+		int lotes = 0;
+
+		try (BufferedReader leitor = new BufferedReader(registros)) {
+			String linha;
+			long numeroLinha = 0;
+			while ((linha = leitor.readLine()) != null) {
+				numeroLinha++;
+				linha = linha.strip();
+				if (linha.isEmpty() || (numeroLinha == 1 && linha.startsWith("id"))) {
+					continue;
+				}
+
+				lote.adicionar(linha, numeroLinha);
+				lidos++;
+
+				if (lote.cheio()) {
+					int gravados = gravar(lote);
+					alterados = acumular(alterados, (int) atualizados, lote.ids, gravados);
+					atualizados += gravados;
+					lotes++;
+					lote.limpar();
+				}
+			}
+
+			if (lote.tamanho > 0) {
+				int gravados = gravar(lote);
+				alterados = acumular(alterados, (int) atualizados, lote.ids, gravados);
+				atualizados += gravados;
+				lotes++;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			if (atualizados > 0) {
+				eventPublisher.publishEvent(new ProdutosAtualizadosEvent(Arrays.copyOf(alterados, (int) atualizados)));
+			}
+		}
+
+		long duracaoNanos = System.nanoTime() - inicio;
+		double porSegundo = duracaoNanos > 0 ? lidos * 1e9 / duracaoNanos : 0;
+		log.info("Atualização de catálogo: {} registros, {} atualizados em {} lotes ({} registros/s)", lidos,
+				atualizados, lotes, Math.round(porSegundo));
+
+		return new AtualizacaoLoteDTO(lidos, atualizados, lotes, duracaoNanos / 1_000_000, porSegundo, null);
+	}
+
+	private int gravar(Lote lote) {
+		int[] resultados = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(ATUALIZAR_PRODUTO,
+				new BatchPreparedStatementSetter() {
+					@Override
+					public void setValues(PreparedStatement ps, int i) throws SQLException {
+						ps.setBigDecimal(1, lote.precos[i]);
+						ps.setInt(2, lote.pesos[i]);
+						ps.setLong(3, lote.ids[i]);
+					}
+
+					@Override
+					public int getBatchSize() {
+						return lote.tamanho;
+					}
+				}));
+
+		// Reaproveita os ids do lote para marcar quais produtos existiam de fato
+		int atualizados = 0;
+		for (int i = 0; i < resultados.length; i++) {
+			if (resultados[i] > 0 || resultados[i] == Statement.SUCCESS_NO_INFO) {
+				lote.ids[atualizados++] = lote.ids[i];
+			}
+		}
+		return atualizados;
+	}
+
+	private static long[] acumular(long[] alterados, int quantidade, long[] ids, int novos) {
+		if (quantidade + novos > alterados.length) {
+			alterados = Arrays.copyOf(alterados, Math.max(quantidade + novos, alterados.length * 2));
+		}
+		System.arraycopy(ids, 0, alterados, quantidade, novos);
+		return alterados;
+	}
+
+	private static final class Lote {
+		private final long[] ids;
+		private final BigDecimal[] precos;
+		private final int[] pesos;
+		private int tamanho;
+
+		private Lote(int capacidade) {
+			this.ids = new long[capacidade];
+			this.precos = new BigDecimal[capacidade];
+			this.pesos = new int[capacidade];
+		}
+
+		private void adicionar(String linha, long numeroLinha) {
+			String[] campos = linha.split(",");
+			if (campos.length != 3) {
+				throw new IllegalArgumentException("Registro inválido na linha " + numeroLinha + ".");
+			}
+			try {
+				BigDecimal preco = new BigDecimal(campos[1].strip());
+				int peso = Integer.parseInt(campos[2].strip());
+				if (preco.signum() < 0 || peso < 0) {
+					throw new IllegalArgumentException("Preço e peso não podem ser negativos (linha " + numeroLinha + ").");
+				}
+				ids[tamanho] = Long.parseLong(campos[0].strip());
+				precos[tamanho] = preco;
+				pesos[tamanho] = peso;
+				tamanho++;
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Registro inválido na linha " + numeroLinha + ".");
+			}
+		}
+
+		private boolean cheio() {
+			return tamanho == ids.length;
+		}
+
+		private void limpar() {
+			tamanho = 0;
+			Arrays.fill(precos, null);
+		}
+	}
+}
@@ -1,22 +1,53 @@
 package ecommerce.service;
 
+import java.util.List;
+
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import ecommerce.dto.CarrinhoCheckoutDTO;
+import ecommerce.dto.ItemCheckoutDTO;
 import ecommerce.entity.CarrinhoDeCompras;
 import ecommerce.entity.Cliente;
+import ecommerce.entity.TipoCliente;
 import ecommerce.repository.CarrinhoDeComprasRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
 
 @Service
 public class CarrinhoDeComprasService {
 	private final CarrinhoDeComprasRepository repository;
+	private final EntityManager entityManager;
+	private final DistributionSummary entidadesGerenciadas;
 	
 	@Autowired
-	public CarrinhoDeComprasService(CarrinhoDeComprasRepository repository) {
+	public CarrinhoDeComprasService(CarrinhoDeComprasRepository repository, EntityManager entityManager,
+			MeterRegistry meterRegistry) {
 		this.repository = repository;
+		this.entityManager = entityManager;
+		this.entidadesGerenciadas = DistributionSummary.builder("compra.contexto-persistencia.entidades")
+				.description("Entidades gerenciadas no contexto de persistência ao fim do carregamento do checkout")
+				.register(meterRegistry);
 	}
 
 	public CarrinhoDeCompras buscarPorCarrinhoIdEClienteId(Long carrinhoId, Cliente cliente) {
 		return repository.findByIdAndCliente(carrinhoId, cliente).orElseThrow(() -> new IllegalArgumentException("Carrinho não encontrado."));
 	}
+
+	// Transação somente leitura (flush manual, sem snapshots) e apenas projeções: nada para o
+	// Hibernate verificar no commit
+	@Transactional(readOnly = true)
+	public CarrinhoCheckoutDTO buscarParaCheckout(Long carrinhoId, Long clienteId, TipoCliente tipoCliente) {
+		if (!repository.existsByIdAndClienteId(carrinhoId, clienteId)) {
+			throw new IllegalArgumentException("Carrinho não encontrado.");
+		}
+		List<ItemCheckoutDTO> itens = repository.findItensCheckout(carrinhoId);
+
+		entidadesGerenciadas.record(entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+
+		return new CarrinhoCheckoutDTO(carrinhoId, clienteId, tipoCliente, itens);
+	}
 }
@@ -2,8 +2,10 @@ package ecommerce.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import ecommerce.entity.Cliente;
+import ecommerce.entity.TipoCliente;
 import ecommerce.repository.ClienteRepository;
 
 @Service
@@ -20,4 +22,10 @@ public class ClienteService {
 		return repository.findById(clienteId).orElseThrow(() -> new IllegalArgumentException("Cliente não encontrado"));
 	}
 
+	// Checkout só precisa do tipo do cliente: consulta escalar, sem carregar a entidade
+	@Transactional(readOnly = true)
+	public TipoCliente buscarTipoPorId(Long clienteId) {
+		return repository.findTipoById(clienteId).orElseThrow(() -> new IllegalArgumentException("Cliente não encontrado"));
+	}
+
 }
@@ -1,107 +1,197 @@
 package ecommerce.service;
 
 import java.math.BigDecimal;
-import java.util.List;
-import java.util.stream.Collectors;
 
 import ecommerce.entity.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import ecommerce.dto.CarrinhoCheckoutDTO;
 import ecommerce.dto.CompraDTO;
+import ecommerce.dto.CustoCompraDTO;
 import ecommerce.dto.DisponibilidadeDTO;
 import ecommerce.dto.EstoqueBaixaDTO;
+import ecommerce.dto.ItemCheckoutDTO;
 import ecommerce.dto.PagamentoDTO;
+import ecommerce.event.PublicadorComprasFinalizadas;
 import ecommerce.external.IEstoqueExternal;
 import ecommerce.external.IPagamentoExternal;
-import jakarta.transaction.Transactional;
+import ecommerce.external.LoteEstoque;
+import ecommerce.external.Prazo;
+import ecommerce.jfr.EtapaCompra;
+import ecommerce.jfr.RegistroEtapasCompra;
+import ecommerce.service.ControlePrazoCompra.ResultadoCompensacao;
+import ecommerce.vendas.AgregadosVendas;
+import ecommerce.vendas.HistoricoCompras;
 
 @Service
 public class CompraService {
 
+	private static final Logger log = LoggerFactory.getLogger(CompraService.class);
+
 	private final CarrinhoDeComprasService carrinhoService;
 	private final ClienteService clienteService;
 
 	private final IEstoqueExternal estoqueExternal;
 	private final IPagamentoExternal pagamentoExternal;
 
+	private final RegistroEtapasCompra registroEtapas;
+	private final PublicadorComprasFinalizadas publicador;
+	private final AgregadosVendas agregados;
+	private final HistoricoCompras historico;
+	private final ControlePrazoCompra controlePrazo;
+
 	@Autowired
 	public CompraService(CarrinhoDeComprasService carrinhoService, ClienteService clienteService,
-			IEstoqueExternal estoqueExternal, IPagamentoExternal pagamentoExternal) {
+			IEstoqueExternal estoqueExternal, IPagamentoExternal pagamentoExternal,
+			RegistroEtapasCompra registroEtapas, PublicadorComprasFinalizadas publicador, AgregadosVendas agregados,
+			HistoricoCompras historico, ControlePrazoCompra controlePrazo) {
 		this.carrinhoService = carrinhoService;
 		this.clienteService = clienteService;
 
 		this.estoqueExternal = estoqueExternal;
 		this.pagamentoExternal = pagamentoExternal;
+
+		this.registroEtapas = registroEtapas;
+		this.publicador = publicador;
+		this.agregados = agregados;
+		this.historico = historico;
+		this.controlePrazo = controlePrazo;
 	}
 
-	@Transactional
-	public CompraDTO finalizarCompra(Long carrinhoId, Long clienteId) {
-		Cliente cliente = clienteService.buscarPorId(clienteId);
-		CarrinhoDeCompras carrinho = carrinhoService.buscarPorCarrinhoIdEClienteId(carrinhoId, cliente);
+	// Sem transação: o carregamento é uma leitura somente leitura de projeções e as etapas
+	// seguintes são chamadas remotas, que não devem segurar conexão com o banco.
+	// Cada etapa recebe o que resta do prazo e a compra é abortada quando ele não comporta a próxima.
+	public CompraDTO finalizarCompra(Long carrinhoId, Long clienteId, Prazo prazo) {
+		CarrinhoCheckoutDTO carrinho = registroEtapas.executar(EtapaCompra.CARREGAMENTO, carrinhoId, null,
+				() -> controlePrazo.executar(EtapaCompra.CARREGAMENTO, prazo, () -> {
+					TipoCliente tipoCliente = clienteService.buscarTipoPorId(clienteId);
+					return carrinhoService.buscarParaCheckout(carrinhoId, clienteId, tipoCliente);
+				}));
+
+		return finalizarCompra(carrinho, prazo);
+	}
 
-		List<Long> produtosIds = carrinho.getItens().stream().map(i -> i.getProduto().getId())
-				.collect(Collectors.toList());
-		List<Long> produtosQtds = carrinho.getItens().stream().map(i -> i.getQuantidade()).collect(Collectors.toList());
+	// Etapas do checkout a partir do carrinho já carregado
+	public CompraDTO finalizarCompra(CarrinhoCheckoutDTO carrinho, Prazo prazo) {
+		Long carrinhoId = carrinho.carrinhoId();
 
-		DisponibilidadeDTO disponibilidade = estoqueExternal.verificarDisponibilidade(produtosIds, produtosQtds);
+		LoteEstoque lote = LoteEstoque.deCarrinho(carrinho);
+
+		DisponibilidadeDTO disponibilidade = registroEtapas.executar(EtapaCompra.DISPONIBILIDADE, carrinhoId, carrinho,
+				() -> controlePrazo.executar(EtapaCompra.DISPONIBILIDADE, prazo,
+						() -> estoqueExternal.verificarDisponibilidade(lote, prazo)),
+				DisponibilidadeDTO::disponivel);
 
 		if (!disponibilidade.disponivel()) {
 			throw new IllegalStateException("Itens fora de estoque.");
 		}
 
-		BigDecimal custoTotal = calcularCustoTotal(carrinho);
+		CustoCompraDTO custo = registroEtapas.executar(EtapaCompra.CALCULO_CUSTO, carrinhoId, carrinho,
+				() -> calcularCusto(carrinho));
+		BigDecimal custoTotal = custo.total();
 
-		PagamentoDTO pagamento = pagamentoExternal.autorizarPagamento(cliente.getId(), custoTotal.doubleValue());
+		PagamentoDTO pagamento = registroEtapas.executar(EtapaCompra.PAGAMENTO, carrinhoId, carrinho,
+				() -> controlePrazo.executar(EtapaCompra.PAGAMENTO, prazo,
+						() -> pagamentoExternal.autorizarPagamento(carrinho.clienteId(), custoTotal.doubleValue(), prazo)),
+				PagamentoDTO::autorizado);
 
 		if (!pagamento.autorizado()) {
 			throw new IllegalStateException("Pagamento não autorizado.");
 		}
 
-		EstoqueBaixaDTO baixaDTO = estoqueExternal.darBaixa(produtosIds, produtosQtds);
+		// Pagamento já autorizado: se a baixa falhar ou estourar o prazo, ele é cancelado
+		// A baixa é sempre tentada (executarAposAutorizacao não aborta antes da chamada), então uma
+		// exceção aqui veio da própria chamada e não dá para saber se o estoque remoto a aplicou
+		EstoqueBaixaDTO baixaDTO;
+		try {
+			baixaDTO = registroEtapas.executar(EtapaCompra.BAIXA_ESTOQUE, carrinhoId, carrinho,
+					() -> controlePrazo.executarAposAutorizacao(EtapaCompra.BAIXA_ESTOQUE, prazo,
+							prazoBaixa -> estoqueExternal.darBaixa(lote, prazoBaixa)),
+					EstoqueBaixaDTO::sucesso);
+		} catch (RuntimeException e) {
+			controlePrazo.registrarCompensacao(ResultadoCompensacao.BAIXA_AMBIGUA);
+			log.warn("Baixa de estoque do carrinho {} sem resposta conclusiva; cancelando o pagamento {}, "
+					+ "o estoque pode precisar de acerto", carrinhoId, pagamento.transacaoId(), e);
+			cancelarPagamento(carrinho.clienteId(), pagamento.transacaoId(), e);
+			throw e;
+		}
 
 		if (!baixaDTO.sucesso()) {
-			pagamentoExternal.cancelarPagamento(cliente.getId(), pagamento.transacaoId());
+			cancelarPagamento(carrinho.clienteId(), pagamento.transacaoId(), null);
 			throw new IllegalStateException("Erro ao dar baixa no estoque.");
 		}
 
 		CompraDTO compraDTO = new CompraDTO(true, pagamento.transacaoId(), "Compra finalizada com sucesso.");
 
+		// Só enfileira: o histórico é gravado fora da requisição, que não segura conexão com o banco
+		historico.registrar(carrinho, custo, pagamento.transacaoId());
+		publicador.publicar(carrinhoId, carrinho.clienteId(), pagamento.transacaoId(), custoTotal);
+		agregados.registrar(carrinho, custo);
+
 		return compraDTO;
 	}
 
+	private void cancelarPagamento(Long clienteId, Long transacaoId, RuntimeException falhaBaixa) {
+		try {
+			pagamentoExternal.cancelarPagamento(clienteId, transacaoId, controlePrazo.prazoCompensacao());
+			controlePrazo.registrarCompensacao(ResultadoCompensacao.CANCELADO);
+		} catch (RuntimeException e) {
+			controlePrazo.registrarCompensacao(ResultadoCompensacao.FALHA_CANCELAMENTO);
+			log.error("Falha ao cancelar o pagamento {} do cliente {}: cobrança sem compra, requer estorno manual",
+					transacaoId, clienteId, e);
+			if (falhaBaixa == null) {
+				throw e;
+			}
+			falhaBaixa.addSuppressed(e);
+		}
+	}
+
 	public BigDecimal calcularCustoTotal(CarrinhoDeCompras carrinho) {
+		return calcularCustoTotal(CarrinhoCheckoutDTO.de(carrinho));
+	}
+
+	public BigDecimal calcularCustoTotal(CarrinhoCheckoutDTO carrinho) {
+		return calcularCusto(carrinho).total();
+	}
+
+	public CustoCompraDTO calcularCusto(CarrinhoCheckoutDTO carrinho) {
 		BigDecimal custoProdutos = BigDecimal.ZERO;
 		BigDecimal pesoTotal = BigDecimal.ZERO;
 
 		// Calculando o custo total dos produtos e o peso total
-		for (ItemCompra item : carrinho.getItens()) {
-			Produto produto = item.getProduto();
-			BigDecimal precoProduto = produto.getPreco();
-			BigDecimal pesoProduto = BigDecimal.valueOf(produto.getPeso());
+		for (ItemCheckoutDTO item : carrinho.itens()) {
+			BigDecimal precoProduto = item.preco();
+			BigDecimal pesoProduto = BigDecimal.valueOf(item.peso());
 
 
-			custoProdutos = custoProdutos.add(precoProduto.multiply(BigDecimal.valueOf(item.getQuantidade())));
+			custoProdutos = custoProdutos.add(precoProduto.multiply(BigDecimal.valueOf(item.quantidade())));
 
-			pesoTotal = pesoTotal.add(pesoProduto.multiply(BigDecimal.valueOf(item.getQuantidade())));
+			pesoTotal = pesoTotal.add(pesoProduto.multiply(BigDecimal.valueOf(item.quantidade())));
 		}
 
 		// Aplicar desconto
+		BigDecimal custoSemDesconto = custoProdutos;
+		BigDecimal fatorDesconto = BigDecimal.ONE;
 		if (custoProdutos.compareTo(BigDecimal.valueOf(1000)) > 0) {
-			custoProdutos = custoProdutos.multiply(BigDecimal.valueOf(0.80)); // Desconto de 20%
+			fatorDesconto = BigDecimal.valueOf(0.80); // Desconto de 20%
+			custoProdutos = custoProdutos.multiply(fatorDesconto);
 		} else if (custoProdutos.compareTo(BigDecimal.valueOf(500)) > 0) {
-			custoProdutos = custoProdutos.multiply(BigDecimal.valueOf(0.90)); // Desconto de 10%
+			fatorDesconto = BigDecimal.valueOf(0.90); // Desconto de 10%
+			custoProdutos = custoProdutos.multiply(fatorDesconto);
 		}
 
 		BigDecimal frete = calcularFrete(pesoTotal);
 
-		if (carrinho.getCliente().getTipo() == TipoCliente.OURO) {
+		if (carrinho.tipoCliente() == TipoCliente.OURO) {
 			frete = BigDecimal.ZERO; //
-		} else if (carrinho.getCliente().getTipo() == TipoCliente.PRATA) {
+		} else if (carrinho.tipoCliente() == TipoCliente.PRATA) {
 			frete = frete.multiply(BigDecimal.valueOf(0.50));
 		}
 
-		return custoProdutos.add(frete);
+		return new CustoCompraDTO(custoProdutos, custoSemDesconto.subtract(custoProdutos), frete, fatorDesconto);
 	}
 
 	private BigDecimal calcularFrete(BigDecimal pesoTotal) {
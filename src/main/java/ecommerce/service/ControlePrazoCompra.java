@@ -0,0 +1,101 @@
+package ecommerce.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import ecommerce.external.Prazo;
+import ecommerce.external.PrazoExpiradoException;
+import ecommerce.jfr.EtapaCompra;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Aplica o prazo da compra a cada etapa: não começa uma etapa que não cabe no tempo restante
+// e trata a falha de uma chamada que estourou o prazo como expiração, contando por etapa.
+// Também conta o desfecho das compensações (cancelamento do pagamento depois da autorização).
+@Component
+public class ControlePrazoCompra {
+
+	public enum ResultadoCompensacao {
+		// Pagamento cancelado
+		CANCELADO,
+		// Cancelamento falhou: cobrança sem compra, exige estorno manual
+		FALHA_CANCELAMENTO,
+		// Baixa sem resposta conclusiva (exceção ou prazo): o estoque pode ter sido baixado mesmo assim
+		BAIXA_AMBIGUA
+	}
+
+	private final long minimoChamadaMs;
+	private final long compensacaoMs;
+	private final Map<EtapaCompra, Counter> expirados = new EnumMap<>(EtapaCompra.class);
+	private final Map<ResultadoCompensacao, Counter> compensacoes = new EnumMap<>(ResultadoCompensacao.class);
+
+	@Autowired
+	public ControlePrazoCompra(MeterRegistry meterRegistry,
+			@Value("${compra.prazo.minimo-chamada-ms:20}") long minimoChamadaMs,
+			@Value("${compra.prazo.compensacao-ms:2000}") long compensacaoMs) {
+		this.minimoChamadaMs = minimoChamadaMs;
+		this.compensacaoMs = compensacaoMs;
+
+		for (EtapaCompra etapa : EtapaCompra.values()) {
+			expirados.put(etapa, Counter.builder("compra.prazo.expirado")
+					.description("Compras abortadas por prazo esgotado")
+					.tag("etapa", etapa.name())
+					.register(meterRegistry));
+		}
+		for (ResultadoCompensacao resultado : ResultadoCompensacao.values()) {
+			compensacoes.put(resultado, Counter.builder("compra.prazo.compensacao")
+					.description("Compensações de compras abortadas depois da autorização do pagamento")
+					.tag("resultado", resultado.name().toLowerCase())
+					.register(meterRegistry));
+		}
+	}
+
+	public <T> T executar(EtapaCompra etapa, Prazo prazo, Supplier<T> chamada) {
+		if (prazo.restanteMillis() < minimoChamadaMs) {
+			throw expirou(etapa, null);
+		}
+		return chamar(etapa, prazo, chamada);
+	}
+
+	// Com o pagamento já autorizado, desistir da etapa por falta de prazo trocaria uma compra que ainda
+	// pode dar certo por um estorno: a etapa sempre é chamada, com ao menos o mínimo de uma chamada
+	public <T> T executarAposAutorizacao(EtapaCompra etapa, Prazo prazo, Function<Prazo, T> chamada) {
+		Prazo prazoEtapa = prazo.restanteMillis() < minimoChamadaMs ? Prazo.emMillis(minimoChamadaMs) : prazo;
+		return chamar(etapa, prazoEtapa, () -> chamada.apply(prazoEtapa));
+	}
+
+	private <T> T chamar(EtapaCompra etapa, Prazo prazo, Supplier<T> chamada) {
+		try {
+			return chamada.get();
+		} catch (PrazoExpiradoException e) {
+			throw expirou(etapa, e);
+		} catch (RuntimeException e) {
+			// Chamadas recebem o restante do prazo como timeout: a falha que deixa menos que o mínimo
+			// de uma chamada é o timeout limitado pelo prazo (ou equivalente a ele) e vira expiração (504)
+			if (prazo.restanteMillis() < minimoChamadaMs) {
+				throw expirou(etapa, e);
+			}
+			throw e;
+		}
+	}
+
+	// A compensação tem prazo próprio: o da compra normalmente já acabou quando ela é necessária
+	public Prazo prazoCompensacao() {
+		return Prazo.emMillis(compensacaoMs);
+	}
+
+	public void registrarCompensacao(ResultadoCompensacao resultado) {
+		compensacoes.get(resultado).increment();
+	}
+
+	private PrazoExpiradoException expirou(EtapaCompra etapa, RuntimeException causa) {
+		expirados.get(etapa).increment();
+		return new PrazoExpiradoException("Prazo da compra esgotado na etapa " + etapa + ".", causa);
+	}
+}
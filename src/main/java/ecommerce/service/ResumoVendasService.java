@@ -0,0 +1,223 @@
+package ecommerce.service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ecommerce.dto.CarrinhoCheckoutDTO;
+import ecommerce.dto.CustoCompraDTO;
+import ecommerce.dto.ItemCheckoutDTO;
+import ecommerce.dto.LinhaReconciliacaoDTO;
+import ecommerce.dto.TotaisVendasDTO;
+import ecommerce.repository.CompraFinalizadaRepository;
+import ecommerce.vendas.AgregadosVendas;
+import ecommerce.vendas.DimensaoVendas;
+import ecommerce.vendas.TotaisVendas;
+import jakarta.annotation.PostConstruct;
+
+// Persistência dos agregados de vendas: carrega resumo_vendas na subida, soma periodicamente os
+// deltas de cada dia às linhas existentes (várias instâncias gravam o mesmo dia sem se sobrescrever)
+// e reconcilia um dia fechado a partir do histórico gravado no checkout, em valores absolutos.
+@Service
+public class ResumoVendasService {
+
+	private static final Logger log = LoggerFactory.getLogger(ResumoVendasService.class);
+
+	private static final String COLUNAS = "dimensao, chave, quantidade, receita_centavos, frete_centavos, desconto_centavos";
+	private static final String SELECIONAR_GERAL = "SELECT dimensao, chave, SUM(quantidade), SUM(receita_centavos), "
+			+ "SUM(frete_centavos), SUM(desconto_centavos) FROM resumo_vendas GROUP BY dimensao, chave";
+	private static final String SELECIONAR_DIA = "SELECT " + COLUNAS + " FROM resumo_vendas WHERE dia = ?";
+	private static final String SELECIONAR_RECENTES = "SELECT dia, " + COLUNAS + " FROM resumo_vendas WHERE dia >= ?";
+	private static final String COMPRAS_GRAVADAS = "SELECT COALESCE(SUM(quantidade), 0) FROM resumo_vendas "
+			+ "WHERE dia = ? AND dimensao = 'TIPO_CLIENTE'";
+	private static final String SOMAR = "UPDATE resumo_vendas SET quantidade = quantidade + ?, "
+			+ "receita_centavos = receita_centavos + ?, frete_centavos = frete_centavos + ?, "
+			+ "desconto_centavos = desconto_centavos + ? WHERE dia = ? AND dimensao = ? AND chave = ?";
+	private static final String SUBSTITUIR = "UPDATE resumo_vendas SET quantidade = ?, receita_centavos = ?, "
+			+ "frete_centavos = ?, desconto_centavos = ? WHERE dia = ? AND dimensao = ? AND chave = ?";
+	private static final String INSERIR = "INSERT INTO resumo_vendas (quantidade, receita_centavos, frete_centavos, "
+			+ "desconto_centavos, dia, dimensao, chave) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final AgregadosVendas agregados;
+	private final CompraFinalizadaRepository compraFinalizadaRepository;
+
+	private final int diasEmMemoria;
+	private final boolean reconciliacaoHabilitada;
+
+	@Autowired
+	public ResumoVendasService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+			AgregadosVendas agregados, CompraFinalizadaRepository compraFinalizadaRepository,
+			@Value("${vendas.agregados.dias-em-memoria:35}") int diasEmMemoria,
+			@Value("${vendas.reconciliacao.enabled:false}") boolean reconciliacaoHabilitada) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.agregados = agregados;
+		this.compraFinalizadaRepository = compraFinalizadaRepository;
+		this.diasEmMemoria = diasEmMemoria;
+		this.reconciliacaoHabilitada = reconciliacaoHabilitada;
+	}
+
+	@PostConstruct
+	public void carregar() {
+		jdbcTemplate.query(SELECIONAR_GERAL, rs -> {
+			somarLinha(agregados.geral(), rs.getString(1), rs.getString(2), rs.getLong(3), rs.getLong(4),
+					rs.getLong(5), rs.getLong(6));
+		});
+		jdbcTemplate.query(SELECIONAR_RECENTES, rs -> {
+			LocalDate dia = rs.getDate(1).toLocalDate();
+			TotaisVendas totais = agregados.doDia(dia);
+			if (totais == null) {
+				totais = new TotaisVendas();
+				agregados.definirDia(dia, totais);
+			}
+			somarLinha(totais, rs.getString(2), rs.getString(3), rs.getLong(4), rs.getLong(5), rs.getLong(6),
+					rs.getLong(7));
+		}, Date.valueOf(limiteMemoria()));
+	}
+
+	public TotaisVendasDTO totais() {
+		return agregados.geral().paraDTO(null);
+	}
+
+	// Dias recentes saem da memória; dias mais antigos, de no máximo uma linha por chave em resumo_vendas
+	public TotaisVendasDTO totaisDoDia(LocalDate dia) {
+		return totaisDoDiaOuBanco(dia).paraDTO(dia);
+	}
+
+	@Scheduled(fixedDelayString = "${vendas.agregados.intervalo-gravacao-ms:60000}",
+			initialDelayString = "${vendas.agregados.intervalo-gravacao-ms:60000}")
+	public void gravar() {
+		agregados.paraCadaDiaPendente((dia, pendente) -> {
+			TotaisVendas delta = new TotaisVendas();
+			delta.acumular(pendente, 1);
+			try {
+				transactionTemplate.executeWithoutResult(status -> gravarDia(dia, delta, SOMAR));
+				pendente.acumular(delta, -1);
+			} catch (RuntimeException e) {
+				// Nada foi somado (rollback): o delta continua pendente por inteiro
+				pendente.marcarAlterado();
+				log.warn("Falha ao gravar resumo de vendas de {}; nova tentativa na próxima execução", dia, e);
+			}
+		});
+		agregados.descartarAnteriores(limiteMemoria());
+	}
+
+	@Scheduled(cron = "${vendas.reconciliacao.cron:0 30 3 * * *}")
+	public void reconciliarAgendado() {
+		if (reconciliacaoHabilitada) {
+			reconciliar(LocalDate.now().minusDays(1));
+		}
+	}
+
+	// Recalcula os totais de um dia fechado a partir das compras finalizadas, com o custo e os itens
+	// gravados no checkout, e substitui resumo_vendas e memória. Recusa o dia quando o histórico tem
+	// menos compras do que resumo_vendas já contou (gravação do histórico perdida, em qualquer
+	// instância): o recálculo apagaria vendas que os agregados registraram.
+	public TotaisVendasDTO reconciliar(LocalDate dia) {
+		TotaisVendas recalculado = new TotaisVendas();
+		List<LinhaReconciliacaoDTO> linhas = compraFinalizadaRepository.findItensFinalizadosNoDia(dia);
+
+		int compras = 0;
+		int inicio = 0;
+		for (int i = 1; i <= linhas.size(); i++) {
+			if (i == linhas.size() || !linhas.get(i).compraId().equals(linhas.get(inicio).compraId())) {
+				List<LinhaReconciliacaoDTO> compra = linhas.subList(inicio, i);
+				AgregadosVendas.acumular(paraCarrinho(compra), paraCusto(compra.get(0)), recalculado, null);
+				compras++;
+				inicio = i;
+			}
+		}
+
+		long gravadas = jdbcTemplate.queryForObject(COMPRAS_GRAVADAS, Long.class, Date.valueOf(dia));
+		if (compras < gravadas) {
+			throw new IllegalStateException("Histórico de compras de " + dia + " incompleto (" + compras
+					+ " compras, " + gravadas + " em resumo_vendas); reconciliação recusada.");
+		}
+
+		TotaisVendas anterior = totaisDoDiaOuBanco(dia);
+		transactionTemplate.executeWithoutResult(status -> gravarDia(dia, recalculado, SUBSTITUIR));
+		agregados.substituirDia(dia, anterior, recalculado);
+		log.info("Resumo de vendas de {} reconciliado a partir de {} compras", dia, compras);
+		return recalculado.paraDTO(dia);
+	}
+
+	private TotaisVendas totaisDoDiaOuBanco(LocalDate dia) {
+		TotaisVendas totais = agregados.doDia(dia);
+		if (totais != null) {
+			return totais;
+		}
+		TotaisVendas gravados = new TotaisVendas();
+		jdbcTemplate.query(SELECIONAR_DIA, rs -> {
+			somarLinha(gravados, rs.getString(1), rs.getString(2), rs.getLong(3), rs.getLong(4), rs.getLong(5),
+					rs.getLong(6));
+		}, Date.valueOf(dia));
+		return gravados;
+	}
+
+	// Atualiza as linhas do dia (SOMAR ou SUBSTITUIR) e insere as que ainda não existem. Se outra
+	// instância inserir a mesma linha antes, a unique constraint derruba a transação e a gravação é
+	// refeita na próxima execução, já pelo UPDATE.
+	private void gravarDia(LocalDate dia, TotaisVendas totais, String atualizar) {
+		List<Object[]> linhas = new ArrayList<>();
+		for (DimensaoVendas dimensao : DimensaoVendas.values()) {
+			for (int chave = 0; chave < dimensao.quantidadeChaves(); chave++) {
+				linhas.add(new Object[] { totais.valor(dimensao, chave, TotaisVendas.QUANTIDADE),
+						totais.valor(dimensao, chave, TotaisVendas.RECEITA),
+						totais.valor(dimensao, chave, TotaisVendas.FRETE),
+						totais.valor(dimensao, chave, TotaisVendas.DESCONTO), Date.valueOf(dia), dimensao.name(),
+						dimensao.nomeChave(chave) });
+			}
+		}
+
+		int[] atualizadas = jdbcTemplate.batchUpdate(atualizar, linhas);
+		List<Object[]> novas = new ArrayList<>();
+		for (int i = 0; i < atualizadas.length; i++) {
+			if (atualizadas[i] == 0) {
+				novas.add(linhas.get(i));
+			}
+		}
+		if (!novas.isEmpty()) {
+			jdbcTemplate.batchUpdate(INSERIR, novas);
+		}
+	}
+
+	private static void somarLinha(TotaisVendas totais, String dimensao, String chave, long quantidade, long receita,
+			long frete, long desconto) {
+		DimensaoVendas dim = DimensaoVendas.valueOf(dimensao);
+		totais.adicionar(dim, dim.indiceChave(chave), quantidade, receita, frete, desconto);
+	}
+
+	private static CarrinhoCheckoutDTO paraCarrinho(List<LinhaReconciliacaoDTO> linhas) {
+		List<ItemCheckoutDTO> itens = new ArrayList<>(linhas.size());
+		for (LinhaReconciliacaoDTO linha : linhas) {
+			if (linha.produtoId() == null) {
+				continue;
+			}
+			itens.add(new ItemCheckoutDTO(linha.produtoId(), linha.quantidade(), linha.preco(), linha.peso(),
+					linha.tipoProduto()));
+		}
+		LinhaReconciliacaoDTO primeira = linhas.get(0);
+		return new CarrinhoCheckoutDTO(primeira.carrinhoId(), primeira.clienteId(), primeira.tipoCliente(), itens);
+	}
+
+	private static CustoCompraDTO paraCusto(LinhaReconciliacaoDTO compra) {
+		return new CustoCompraDTO(compra.custoProdutos(), compra.desconto(), compra.frete(), compra.fatorDesconto());
+	}
+
+	private LocalDate limiteMemoria() {
+		return LocalDate.now().minusDays(diasEmMemoria);
+	}
+}
@@ -0,0 +1,150 @@
+package ecommerce.vendas;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+import org.springframework.stereotype.Component;
+
+import ecommerce.dto.CarrinhoCheckoutDTO;
+import ecommerce.dto.CustoCompraDTO;
+import ecommerce.dto.ItemCheckoutDTO;
+
+// Agregados de vendas mantidos incrementalmente a cada compra finalizada: totais por dia (dias
+// recentes), o acumulado geral e, por dia, o que ainda não foi somado em resumo_vendas. Consultas
+// leem os contadores direto, sem varrer carrinhos; a gravação em resumo_vendas e a reconciliação
+// ficam no ResumoVendasService.
+@Component
+public class AgregadosVendas {
+
+	private final Map<LocalDate, TotaisVendas> dias = new ConcurrentHashMap<>();
+	private final TotaisVendas geral = new TotaisVendas();
+	// Deltas por dia ainda não gravados; a gravação soma (+=) às linhas existentes, então várias
+	// instâncias gravando o mesmo dia não se sobrescrevem
+	private final Map<LocalDate, TotaisVendas> pendentes = new ConcurrentHashMap<>();
+	private final Clock relogio;
+
+	public AgregadosVendas() {
+		this(Clock.systemDefaultZone());
+	}
+
+	AgregadosVendas(Clock relogio) {
+		this.relogio = relogio;
+	}
+
+	public void registrar(CarrinhoCheckoutDTO carrinho, CustoCompraDTO custo) {
+		LocalDate hoje = LocalDate.now(relogio);
+		TotaisVendas doDia = dias.computeIfAbsent(hoje, d -> new TotaisVendas());
+		acumular(carrinho, custo, doDia, geral);
+		acumular(carrinho, custo, pendentes.computeIfAbsent(hoje, d -> new TotaisVendas()), null);
+	}
+
+	public TotaisVendas geral() {
+		return geral;
+	}
+
+	// Nulo quando o dia não está em memória (ainda não houve venda ou já foi descartado)
+	public TotaisVendas doDia(LocalDate dia) {
+		return dias.get(dia);
+	}
+
+	// Carga inicial a partir de resumo_vendas; não mexe no acumulado geral, carregado à parte
+	public void definirDia(LocalDate dia, TotaisVendas totais) {
+		dias.put(dia, totais);
+	}
+
+	// Troca os totais de um dia já fechado (reconciliação, que grava o dia em valores absolutos) e
+	// corrige o acumulado geral pela diferença. O delta pendente do dia já está nos novos totais e é
+	// descartado. Vendas registradas no dia durante a troca se perdem; por isso só se reconcilia dias
+	// anteriores.
+	public void substituirDia(LocalDate dia, TotaisVendas anterior, TotaisVendas novo) {
+		dias.put(dia, novo);
+		pendentes.remove(dia);
+		geral.acumular(novo, 1);
+		geral.acumular(anterior, -1);
+	}
+
+	// Entrega o delta pendente de cada dia alterado desde a última chamada. Quem grava subtrai do
+	// delta o que gravou (acumular com sinal -1); compras registradas durante a gravação ficam nele.
+	public void paraCadaDiaPendente(BiConsumer<LocalDate, TotaisVendas> acao) {
+		pendentes.forEach((dia, delta) -> {
+			if (delta.consumirAlteracao()) {
+				acao.accept(dia, delta);
+			}
+		});
+	}
+
+	// Remove da memória os dias anteriores ao limite e os deltas de dias encerrados já gravados
+	public void descartarAnteriores(LocalDate limite) {
+		LocalDate hoje = LocalDate.now(relogio);
+		pendentes.entrySet().removeIf(dia -> dia.getKey().isBefore(hoje) && !dia.getValue().alterado());
+		dias.keySet().removeIf(dia -> dia.isBefore(limite) && !pendentes.containsKey(dia));
+	}
+
+	// Soma uma compra em um ou dois períodos. Por tipo de produto, receita e desconto são rateados pelo
+	// valor bruto de cada item e o frete pelo peso; o resto do arredondamento vai para o último item,
+	// de modo que a soma por produto bate com a soma por cliente.
+	public static void acumular(CarrinhoCheckoutDTO carrinho, CustoCompraDTO custo, TotaisVendas periodo,
+			TotaisVendas outroPeriodo) {
+		long receita = centavos(custo.custoProdutos());
+		long frete = centavos(custo.frete());
+		long desconto = centavos(custo.desconto());
+
+		int tipoCliente = carrinho.tipoCliente().ordinal();
+		periodo.adicionar(DimensaoVendas.TIPO_CLIENTE, tipoCliente, 1, receita, frete, desconto);
+		if (outroPeriodo != null) {
+			outroPeriodo.adicionar(DimensaoVendas.TIPO_CLIENTE, tipoCliente, 1, receita, frete, desconto);
+		}
+
+		List<ItemCheckoutDTO> itens = carrinho.itens();
+		int quantidadeItens = itens.size();
+		if (quantidadeItens == 0) {
+			return;
+		}
+		long[] valores = new long[quantidadeItens];
+		long[] pesos = new long[quantidadeItens];
+		for (int i = 0; i < quantidadeItens; i++) {
+			ItemCheckoutDTO item = itens.get(i);
+			valores[i] = centavos(item.preco().multiply(BigDecimal.valueOf(item.quantidade())));
+			pesos[i] = (long) item.peso() * item.quantidade();
+		}
+		long[] receitas = ratear(receita, valores);
+		long[] fretes = ratear(frete, pesos);
+		long[] descontos = ratear(desconto, valores);
+
+		for (int i = 0; i < quantidadeItens; i++) {
+			ItemCheckoutDTO item = itens.get(i);
+			int tipoProduto = item.tipoProduto().ordinal();
+			periodo.adicionar(DimensaoVendas.TIPO_PRODUTO, tipoProduto, item.quantidade(), receitas[i], fretes[i],
+					descontos[i]);
+			if (outroPeriodo != null) {
+				outroPeriodo.adicionar(DimensaoVendas.TIPO_PRODUTO, tipoProduto, item.quantidade(), receitas[i],
+						fretes[i], descontos[i]);
+			}
+		}
+	}
+
+	static long[] ratear(long total, long[] pesos) {
+		long soma = 0;
+		for (long peso : pesos) {
+			soma += peso;
+		}
+		long[] partes = new long[pesos.length];
+		long distribuido = 0;
+		for (int i = 0; i < pesos.length - 1 && soma > 0; i++) {
+			partes[i] = (long) ((double) total * pesos[i] / soma);
+			distribuido += partes[i];
+		}
+		partes[pesos.length - 1] = total - distribuido;
+		return partes;
+	}
+
+	static long centavos(BigDecimal valor) {
+		return valor.movePointRight(2).setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+	}
+}
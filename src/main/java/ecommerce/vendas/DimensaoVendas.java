@@ -0,0 +1,21 @@
+package ecommerce.vendas;
+
+import ecommerce.entity.TipoCliente;
+import ecommerce.entity.TipoProduto;
+
+// Eixos dos agregados de vendas; as chaves são os ordinais de TipoCliente/TipoProduto
+public enum DimensaoVendas {
+	TIPO_CLIENTE, TIPO_PRODUTO;
+
+	public int quantidadeChaves() {
+		return this == TIPO_CLIENTE ? TipoCliente.values().length : TipoProduto.values().length;
+	}
+
+	public String nomeChave(int indice) {
+		return this == TIPO_CLIENTE ? TipoCliente.values()[indice].name() : TipoProduto.values()[indice].name();
+	}
+
+	public int indiceChave(String nome) {
+		return this == TIPO_CLIENTE ? TipoCliente.valueOf(nome).ordinal() : TipoProduto.valueOf(nome).ordinal();
+	}
+}
@@ -0,0 +1,180 @@
+package ecommerce.vendas;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ecommerce.dto.CarrinhoCheckoutDTO;
+import ecommerce.dto.CustoCompraDTO;
+import ecommerce.dto.ItemCheckoutDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+// Histórico das compras finalizadas (compra_finalizada/item_compra_finalizada) com o que foi cobrado:
+// tipo de cliente, composição do custo e preço, peso e tipo de cada item. O checkout só enfileira
+// (fila limitada, sem I/O na thread da requisição); a gravação roda agendada, um lote por transação.
+// Lote que falha continua pendente e é regravado compra a compra; uma compra que falha em todas as
+// tentativas, ou que não coube na fila, é contada e logada. A reconciliação não depende de nada em
+// memória para perceber a perda: compara o histórico do dia com o que resumo_vendas já contou.
+@Component
+public class HistoricoCompras {
+
+	private static final Logger log = LoggerFactory.getLogger(HistoricoCompras.class);
+
+	private static final String INSERIR_COMPRA = "INSERT INTO compra_finalizada (carrinho_id, cliente_id, "
+			+ "transacao_pagamento_id, tipo_cliente, valor, custo_produtos, desconto, frete, fator_desconto, data) "
+			+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+	private static final String INSERIR_ITEM = "INSERT INTO item_compra_finalizada (compra_finalizada_id, "
+			+ "produto_id, quantidade, preco, peso, tipo_produto) VALUES (?, ?, ?, ?, ?, ?)";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final Counter falhas;
+	private final Clock relogio;
+	private final int maxTentativas;
+
+	private final BlockingQueue<CompraRegistrada> fila;
+	// Só a thread de gravação mexe aqui
+	private final List<CompraRegistrada> pendentes = new ArrayList<>();
+
+	@Autowired
+	public HistoricoCompras(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+			MeterRegistry meterRegistry, @Value("${vendas.historico.capacidade:10000}") int capacidade,
+			@Value("${vendas.historico.max-tentativas:5}") int maxTentativas) {
+		this(jdbcTemplate, transactionManager, meterRegistry, capacidade, maxTentativas, Clock.systemDefaultZone());
+	}
+
+	HistoricoCompras(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+			MeterRegistry meterRegistry, int capacidade, int maxTentativas, Clock relogio) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.relogio = relogio;
+		this.maxTentativas = maxTentativas;
+		this.fila = new ArrayBlockingQueue<>(capacidade);
+
+		this.falhas = Counter.builder("vendas.historico.falhas")
+				.description("Compras finalizadas que não foram gravadas no histórico")
+				.register(meterRegistry);
+		Gauge.builder("vendas.historico.pendentes", this, HistoricoCompras::pendentes)
+				.description("Compras finalizadas ainda não gravadas no histórico")
+				.register(meterRegistry);
+	}
+
+	public void registrar(CarrinhoCheckoutDTO carrinho, CustoCompraDTO custo, Long transacaoPagamentoId) {
+		CompraRegistrada compra = new CompraRegistrada(LocalDate.now(relogio), carrinho, custo, transacaoPagamentoId);
+		if (!fila.offer(compra)) {
+			falhas.increment();
+			log.error("Fila do histórico cheia: compra do carrinho {} (transação {}) não será gravada no histórico",
+					carrinho.carrinhoId(), transacaoPagamentoId);
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${vendas.historico.intervalo-gravacao-ms:1000}")
+	public synchronized void gravar() {
+		fila.drainTo(pendentes);
+		if (pendentes.isEmpty()) {
+			return;
+		}
+		try {
+			transactionTemplate.executeWithoutResult(status -> pendentes.forEach(this::inserir));
+			pendentes.clear();
+		} catch (RuntimeException e) {
+			log.warn("Falha ao gravar {} compras no histórico em lote; gravando uma a uma", pendentes.size(), e);
+			gravarUmaAUma();
+		}
+	}
+
+	@PreDestroy
+	public void parar() {
+		gravar();
+	}
+
+	double pendentes() {
+		return fila.size() + pendentes.size();
+	}
+
+	// Isola a compra que derruba o lote: as demais são gravadas e só ela espera a próxima execução
+	private void gravarUmaAUma() {
+		Iterator<CompraRegistrada> iterador = pendentes.iterator();
+		while (iterador.hasNext()) {
+			CompraRegistrada compra = iterador.next();
+			try {
+				transactionTemplate.executeWithoutResult(status -> inserir(compra));
+				iterador.remove();
+			} catch (RuntimeException e) {
+				if (++compra.tentativas >= maxTentativas) {
+					iterador.remove();
+					falhas.increment();
+					log.error("Compra do carrinho {} (transação {}) não gravada no histórico após {} tentativas",
+							compra.carrinho.carrinhoId(), compra.transacaoPagamentoId, compra.tentativas, e);
+				}
+			}
+		}
+	}
+
+	private void inserir(CompraRegistrada compra) {
+		CarrinhoCheckoutDTO carrinho = compra.carrinho;
+		CustoCompraDTO custo = compra.custo;
+		KeyHolder chave = new GeneratedKeyHolder();
+		jdbcTemplate.update(conexao -> {
+			PreparedStatement ps = conexao.prepareStatement(INSERIR_COMPRA, new String[] { "id" });
+			ps.setObject(1, carrinho.carrinhoId());
+			ps.setObject(2, carrinho.clienteId());
+			ps.setObject(3, compra.transacaoPagamentoId);
+			ps.setString(4, carrinho.tipoCliente().name());
+			ps.setBigDecimal(5, custo.total());
+			ps.setBigDecimal(6, custo.custoProdutos());
+			ps.setBigDecimal(7, custo.desconto());
+			ps.setBigDecimal(8, custo.frete());
+			ps.setBigDecimal(9, custo.fatorDesconto());
+			ps.setDate(10, Date.valueOf(compra.dia));
+			return ps;
+		}, chave);
+		long compraId = chave.getKey().longValue();
+
+		List<Object[]> itens = new ArrayList<>(carrinho.itens().size());
+		for (ItemCheckoutDTO item : carrinho.itens()) {
+			itens.add(new Object[] { compraId, item.produtoId(), item.quantidade(), item.preco(), item.peso(),
+					item.tipoProduto().name() });
+		}
+		if (!itens.isEmpty()) {
+			jdbcTemplate.batchUpdate(INSERIR_ITEM, itens);
+		}
+	}
+
+	private static final class CompraRegistrada {
+		private final LocalDate dia;
+		private final CarrinhoCheckoutDTO carrinho;
+		private final CustoCompraDTO custo;
+		private final Long transacaoPagamentoId;
+		private int tentativas;
+
+		private CompraRegistrada(LocalDate dia, CarrinhoCheckoutDTO carrinho, CustoCompraDTO custo,
+				Long transacaoPagamentoId) {
+			this.dia = dia;
+			this.carrinho = carrinho;
+			this.custo = custo;
+			this.transacaoPagamentoId = transacaoPagamentoId;
+		}
+	}
+}
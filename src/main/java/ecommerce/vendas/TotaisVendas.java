@@ -0,0 +1,97 @@
+package ecommerce.vendas;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import ecommerce.dto.TotaisVendasDTO;
+import ecommerce.dto.TotalVendasDTO;
+import ecommerce.entity.TipoCliente;
+import ecommerce.entity.TipoProduto;
+
+// Totais de um período (um dia ou o acumulado geral) em centavos. Cada contador é um LongAdder:
+// checkouts concorrentes somam em células separadas em vez de disputar a mesma linha de cache.
+public final class TotaisVendas {
+
+	public static final int QUANTIDADE = 0;
+	public static final int RECEITA = 1;
+	public static final int FRETE = 2;
+	public static final int DESCONTO = 3;
+	private static final int METRICAS = 4;
+
+	private static final int CLIENTES = DimensaoVendas.TIPO_CLIENTE.quantidadeChaves();
+	private static final int PRODUTOS = DimensaoVendas.TIPO_PRODUTO.quantidadeChaves();
+
+	private final LongAdder[] contadores = new LongAdder[(CLIENTES + PRODUTOS) * METRICAS];
+	private final AtomicBoolean alterado = new AtomicBoolean();
+
+	public TotaisVendas() {
+		for (int i = 0; i < contadores.length; i++) {
+			contadores[i] = new LongAdder();
+		}
+	}
+
+	public void adicionar(DimensaoVendas dimensao, int chave, long quantidade, long receita, long frete, long desconto) {
+		int base = indice(dimensao, chave);
+		contadores[base + QUANTIDADE].add(quantidade);
+		contadores[base + RECEITA].add(receita);
+		contadores[base + FRETE].add(frete);
+		contadores[base + DESCONTO].add(desconto);
+		// Leitura antes da escrita: depois da primeira compra a flag só é lida, sem invalidar a linha de cache
+		if (!alterado.get()) {
+			alterado.set(true);
+		}
+	}
+
+	public long valor(DimensaoVendas dimensao, int chave, int metrica) {
+		return contadores[indice(dimensao, chave) + metrica].sum();
+	}
+
+	// Soma (sinal 1) ou subtrai (sinal -1) todos os contadores de outro período
+	public void acumular(TotaisVendas outro, int sinal) {
+		for (int i = 0; i < contadores.length; i++) {
+			contadores[i].add(sinal * outro.contadores[i].sum());
+		}
+	}
+
+	public void marcarAlterado() {
+		alterado.set(true);
+	}
+
+	public boolean alterado() {
+		return alterado.get();
+	}
+
+	// Consome a marca de alteração: atualizações posteriores voltam a marcar o período
+	public boolean consumirAlteracao() {
+		return alterado.getAndSet(false);
+	}
+
+	public TotaisVendasDTO paraDTO(LocalDate dia) {
+		Map<TipoCliente, TotalVendasDTO> porTipoCliente = new EnumMap<>(TipoCliente.class);
+		for (TipoCliente tipo : TipoCliente.values()) {
+			porTipoCliente.put(tipo, total(DimensaoVendas.TIPO_CLIENTE, tipo.ordinal()));
+		}
+		Map<TipoProduto, TotalVendasDTO> porTipoProduto = new EnumMap<>(TipoProduto.class);
+		for (TipoProduto tipo : TipoProduto.values()) {
+			porTipoProduto.put(tipo, total(DimensaoVendas.TIPO_PRODUTO, tipo.ordinal()));
+		}
+		return new TotaisVendasDTO(dia, porTipoCliente, porTipoProduto);
+	}
+
+	private TotalVendasDTO total(DimensaoVendas dimensao, int chave) {
+		return new TotalVendasDTO(valor(dimensao, chave, QUANTIDADE), reais(valor(dimensao, chave, RECEITA)),
+				reais(valor(dimensao, chave, FRETE)), reais(valor(dimensao, chave, DESCONTO)));
+	}
+
+	private static BigDecimal reais(long centavos) {
+		return BigDecimal.valueOf(centavos, 2);
+	}
+
+	private static int indice(DimensaoVendas dimensao, int chave) {
+		return (dimensao == DimensaoVendas.TIPO_CLIENTE ? chave : CLIENTES + chave) * METRICAS;
+	}
+}
@@ -0,0 +1,70 @@
+package ecommerce.aquecimento;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ecommerce.dto.CarrinhoCheckoutDTO;
+import ecommerce.entity.CarrinhoDeCompras;
+import ecommerce.service.CompraService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@SpringBootTest(properties = "compra.aquecimento.rodadas=3")
+class AquecimentoCheckoutTest {
+
+    @Autowired
+    private AquecimentoCheckout aquecimento;
+
+    @Autowired
+    private CompraService compraService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testCarrinhosSinteticos_CobremTiposEFaixas() {
+        List<CarrinhoDeCompras> carrinhos = AquecimentoCheckout.carrinhosSinteticos();
+
+        Set<String> tiposEDescontos = new HashSet<>();
+        Set<Long> pesos = new HashSet<>();
+        for (CarrinhoDeCompras carrinho : carrinhos) {
+            CarrinhoCheckoutDTO checkout = CarrinhoCheckoutDTO.de(carrinho);
+            tiposEDescontos.add(checkout.tipoCliente() + "/" + compraService.calcularCusto(checkout).fatorDesconto());
+            pesos.add(checkout.itens().stream().mapToLong(item -> item.peso() * item.quantidade()).sum());
+        }
+
+        assertEquals(36, carrinhos.size());
+        assertEquals(9, tiposEDescontos.size()); // 3 tipos de cliente x 3 faixas de desconto
+        assertEquals(Set.of(3L, 7L, 30L, 60L), pesos); // uma por faixa de frete
+    }
+
+    @Test
+    void testAquecer_ExecutaTodasAsRodadasNosBeansReais() {
+        // Desligado na configuração de teste: a subida do contexto não processou nenhum carrinho
+        assertEquals(0, aquecimento.getCarrinhos());
+
+        assertTrue(aquecimento.aquecer());
+        assertEquals(3 * 36, aquecimento.getCarrinhos());
+        assertEquals(108.0, meterRegistry.get("compra.aquecimento.carrinhos").gauge().value(), 0.0);
+        assertNotNull(meterRegistry.find("compra.aquecimento.duracao").timeGauge());
+    }
+
+    @Test
+    void testAquecer_InterrompidoPeloOrcamento() {
+        AquecimentoCheckout semOrcamento = new AquecimentoCheckout(compraService, objectMapper,
+                new SimpleMeterRegistry(), true, Integer.MAX_VALUE, 0);
+
+        assertFalse(semOrcamento.aquecer());
+        assertEquals(0, semOrcamento.getCarrinhos());
+    }
+}
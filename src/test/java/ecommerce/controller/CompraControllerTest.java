@@ -4,6 +4,8 @@ package ecommerce.controller;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import ecommerce.dto.CompraDTO;
@@ -13,6 +15,8 @@ import ecommerce.dto.PagamentoDTO;
 import ecommerce.entity.*;
 import ecommerce.external.IEstoqueExternal;
 import ecommerce.external.IPagamentoExternal;
+import ecommerce.external.Prazo;
+import ecommerce.external.PrazoExpiradoException;
 import ecommerce.repository.ClienteRepository;
 import ecommerce.service.CarrinhoDeComprasService;
 import ecommerce.service.ClienteService;
@@ -21,13 +25,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -36,14 +39,12 @@ import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 
-@SpringBootTest
 @ExtendWith(MockitoExtension.class)
 class CompraControllerTest {
 
     @Mock
     private CompraService compraService;
 
-    @InjectMocks
     private CompraController compraController;
 
     private Cliente cliente;
@@ -55,7 +56,7 @@ class CompraControllerTest {
         MockitoAnnotations.openMocks(this);
 
 
-        compraController = new CompraController(compraService);
+        compraController = new CompraController(compraService, 5_000);
 
 
         cliente = new Cliente(1l, "teste", "rua teste", TipoCliente.valueOf("OURO"));
@@ -77,10 +78,10 @@ class CompraControllerTest {
 
         // Simular o comportamento do compraService
         CompraDTO compraDTO = new CompraDTO(true, 123L, "Compra finalizada com sucesso.");
-        when(compraService.finalizarCompra(1L, 1L)).thenReturn(compraDTO);
+        when(compraService.finalizarCompra(eq(1L), eq(1L), any(Prazo.class))).thenReturn(compraDTO);
 
 
-        ResponseEntity<CompraDTO> response = compraController.finalizarCompra(1L, 1L);
+        ResponseEntity<CompraDTO> response = compraController.finalizarCompra(1L, 1L, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(compraDTO, response.getBody());
@@ -90,11 +91,11 @@ class CompraControllerTest {
     void testFinalizarCompra_EstoqueIndisponivel() {
 
 
-        when(compraService.finalizarCompra(anyLong(), anyLong()))
+        when(compraService.finalizarCompra(anyLong(), anyLong(), any(Prazo.class)))
                 .thenThrow(new IllegalStateException("Itens fora de estoque."));
 
 
-        ResponseEntity<CompraDTO> response = compraController.finalizarCompra(1L, 1L);
+        ResponseEntity<CompraDTO> response = compraController.finalizarCompra(1L, 1L, null);
 
         assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
         assertFalse(response.getBody().sucesso());
@@ -105,10 +106,10 @@ class CompraControllerTest {
     @Test
     void testFinalizarCompra_PagamentoNaoAutorizado() {
 
-        when(compraService.finalizarCompra(anyLong(), anyLong())).thenThrow(new IllegalArgumentException("Pagamento não autorizado."));
+        when(compraService.finalizarCompra(anyLong(), anyLong(), any(Prazo.class))).thenThrow(new IllegalArgumentException("Pagamento não autorizado."));
 
 
-        ResponseEntity<CompraDTO> response = compraController.finalizarCompra(1L, 1L);
+        ResponseEntity<CompraDTO> response = compraController.finalizarCompra(1L, 1L, null);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertEquals("Pagamento não autorizado.", response.getBody().mensagem());
@@ -117,14 +118,48 @@ class CompraControllerTest {
     @Test
     void testFinalizarCompra_ExceptionGenerica() {
 
-        when(compraService.finalizarCompra(anyLong(), anyLong()))
+        when(compraService.finalizarCompra(anyLong(), anyLong(), any(Prazo.class)))
                 .thenThrow(new RuntimeException("Erro inesperado"));
 
-        ResponseEntity<CompraDTO> response = compraController.finalizarCompra(1L, 1L);
+        ResponseEntity<CompraDTO> response = compraController.finalizarCompra(1L, 1L, null);
 
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
         assertThat(response.getBody().sucesso()).isFalse();
         assertThat(response.getBody().mensagem()).isEqualTo("Erro ao processar compra.");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFinalizarCompra_PrazoExpirado() {
+
+        when(compraService.finalizarCompra(anyLong(), anyLong(), any(Prazo.class)))
+                .thenThrow(new PrazoExpiradoException("Prazo da compra esgotado na etapa PAGAMENTO."));
+
+        ResponseEntity<CompraDTO> response = compraController.finalizarCompra(1L, 1L, 200L);
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, response.getStatusCode());
+        assertFalse(response.getBody().sucesso());
+    }
+
+    @Test
+    void testFinalizarCompra_PrazoAcimaDoPadraoLimitado() {
+
+        when(compraService.finalizarCompra(anyLong(), anyLong(), any(Prazo.class)))
+                .thenReturn(new CompraDTO(true, 123L, "Compra finalizada com sucesso."));
+
+        compraController.finalizarCompra(1L, 1L, 600_000L);
+
+        ArgumentCaptor<Prazo> prazo = ArgumentCaptor.forClass(Prazo.class);
+        verify(compraService).finalizarCompra(eq(1L), eq(1L), prazo.capture());
+        assertTrue(prazo.getValue().restanteMillis() <= 5_000);
+    }
+
+    @Test
+    void testFinalizarCompra_PrazoInvalido() {
+
+        ResponseEntity<CompraDTO> response = compraController.finalizarCompra(1L, 1L, 0L);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(compraService);
+    }
+}
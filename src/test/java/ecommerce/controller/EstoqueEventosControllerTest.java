@@ -0,0 +1,54 @@
+package ecommerce.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import ecommerce.dto.EstoqueNivelDTO;
+import ecommerce.external.LoteEstoque;
+import ecommerce.external.cache.CacheDisponibilidade;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+class EstoqueEventosControllerTest {
+
+    private final CacheDisponibilidade cache = new CacheDisponibilidade(0.5, 60_000, 1_000, new SimpleMeterRegistry());
+
+    private static LoteEstoque lote(long produtoId, long quantidade) {
+        LoteEstoque lote = new LoteEstoque(1);
+        lote.adicionar(produtoId, quantidade);
+        return lote;
+    }
+
+    @Test
+    void testReceberEventos_TokenCorreto() {
+        EstoqueEventosController controller = new EstoqueEventosController(cache, "segredo");
+
+        ResponseEntity<Void> response = controller.receberEventos("segredo", List.of(new EstoqueNivelDTO(1L, 100L)));
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertTrue(cache.cobre(lote(1L, 10L)));
+    }
+
+    @Test
+    void testReceberEventos_TokenAusenteOuErradoNaoAlteraCache() {
+        EstoqueEventosController controller = new EstoqueEventosController(cache, "segredo");
+
+        assertEquals(HttpStatus.UNAUTHORIZED,
+                controller.receberEventos(null, List.of(new EstoqueNivelDTO(1L, 100L))).getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED,
+                controller.receberEventos("outro", List.of(new EstoqueNivelDTO(1L, 100L))).getStatusCode());
+        assertFalse(cache.cobre(lote(1L, 10L)));
+    }
+
+    @Test
+    void testInvalidarTodos_SemSegredoConfiguradoRecusa() {
+        cache.registrarEstoque(1L, 100L);
+        EstoqueEventosController controller = new EstoqueEventosController(cache, "");
+
+        assertEquals(HttpStatus.UNAUTHORIZED, controller.invalidarTodos("").getStatusCode());
+        assertTrue(cache.cobre(lote(1L, 10L)));
+    }
+}
@@ -0,0 +1,37 @@
+package ecommerce.event;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Medição de tempo de parede: fora da suíte padrão, roda com mvn test -Pperf
+@Tag("perf")
+class RingBufferComprasPerfTest {
+
+    @Test
+    void testPublicar_CustoMenorQueUmMicrossegundo() throws Exception {
+        int eventos = 1_000_000;
+        // BLOQUEAR: mede a publicação que de fato entrega o evento, não o caminho de descarte
+        RingBufferCompras ringBuffer = new RingBufferCompras(1 << 16, PoliticaOverflow.BLOQUEAR, 256,
+                List.of((evento, sequencia, fimDoLote) -> { }));
+        ringBuffer.iniciar();
+        BigDecimal valor = BigDecimal.TEN;
+
+        for (int i = 0; i < eventos; i++) {
+            ringBuffer.publicar(i, 1L, 1L, valor);
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < eventos; i++) {
+            ringBuffer.publicar(i, 1L, 1L, valor);
+        }
+        long nanosPorEvento = (System.nanoTime() - inicio) / eventos;
+        ringBuffer.parar();
+
+        assertEquals(0, ringBuffer.descartados());
+        assertTrue(nanosPorEvento < 1_000);
+    }
+}
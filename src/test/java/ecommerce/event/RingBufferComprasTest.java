@@ -0,0 +1,104 @@
+package ecommerce.event;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+class RingBufferComprasTest {
+
+    @Test
+    void testPublicar_EntregaTodosEmOrdemParaCadaConsumidor() throws Exception {
+        List<Long> primeiro = Collections.synchronizedList(new ArrayList<>());
+        List<Long> segundo = Collections.synchronizedList(new ArrayList<>());
+        RingBufferCompras ringBuffer = new RingBufferCompras(64, PoliticaOverflow.BLOQUEAR, 8, List.of(
+                (evento, sequencia, fimDoLote) -> primeiro.add(evento.getCarrinhoId()),
+                (evento, sequencia, fimDoLote) -> segundo.add(sequencia)));
+        ringBuffer.iniciar();
+
+        for (long i = 0; i < 1_000; i++) {
+            assertTrue(ringBuffer.publicar(i, 1L, 10L, BigDecimal.ONE));
+        }
+        ringBuffer.parar();
+
+        assertEquals(1_000, primeiro.size());
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(Long.valueOf(i), primeiro.get(i));
+            assertEquals(Long.valueOf(i), segundo.get(i));
+        }
+        assertEquals(0, ringBuffer.lag());
+    }
+
+    @Test
+    void testPublicar_VariosProdutoresSemPerda() throws Exception {
+        int produtores = 8;
+        int porProdutor = 10_000;
+        CountDownLatch recebidos = new CountDownLatch(produtores * porProdutor);
+        RingBufferCompras ringBuffer = new RingBufferCompras(1024, PoliticaOverflow.BLOQUEAR, 64,
+                List.of((evento, sequencia, fimDoLote) -> recebidos.countDown()));
+        ringBuffer.iniciar();
+
+        ExecutorService executor = Executors.newFixedThreadPool(produtores);
+        for (int p = 0; p < produtores; p++) {
+            executor.submit(() -> {
+                for (int i = 0; i < porProdutor; i++) {
+                    ringBuffer.publicar(i, 1L, 1L, BigDecimal.ONE);
+                }
+            });
+        }
+
+        assertTrue(recebidos.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        ringBuffer.parar();
+        assertEquals(0, ringBuffer.descartados());
+    }
+
+    @Test
+    void testPublicar_DescartaQuandoCheio() {
+        RingBufferCompras ringBuffer = new RingBufferCompras(4, PoliticaOverflow.DESCARTAR, 4, List.of());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ringBuffer.publicar(i, 1L, 1L, BigDecimal.ONE));
+        }
+
+        assertFalse(ringBuffer.publicar(5L, 1L, 1L, BigDecimal.ONE));
+        assertEquals(1, ringBuffer.descartados());
+        assertEquals(4, ringBuffer.lag());
+    }
+
+    @Test
+    void testCapacidadeInvalida() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RingBufferCompras(100, PoliticaOverflow.DESCARTAR, 8, List.of()));
+    }
+
+    @Test
+    void testConsumidor_ErroNaoEncerraAThread() throws Exception {
+        CountDownLatch recebidos = new CountDownLatch(3);
+        RingBufferCompras ringBuffer = new RingBufferCompras(8, PoliticaOverflow.BLOQUEAR, 1, List.of(
+                (evento, sequencia, fimDoLote) -> {
+                    if (sequencia == 0) {
+                        throw new StackOverflowError();
+                    }
+                    recebidos.countDown();
+                },
+                (evento, sequencia, fimDoLote) -> recebidos.countDown()));
+        ringBuffer.iniciar();
+
+        ringBuffer.publicar(1L, 1L, 1L, BigDecimal.ONE);
+        ringBuffer.publicar(2L, 1L, 1L, BigDecimal.ONE);
+
+        // Evento 0 chega só ao segundo consumidor; evento 1 chega aos dois
+        assertTrue(recebidos.await(5, TimeUnit.SECONDS));
+        ringBuffer.parar();
+        assertEquals(1, ringBuffer.falhas());
+    }
+}
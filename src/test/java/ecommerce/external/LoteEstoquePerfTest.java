@@ -0,0 +1,69 @@
+package ecommerce.external;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import ecommerce.dto.CarrinhoCheckoutDTO;
+import ecommerce.dto.ItemCheckoutDTO;
+import ecommerce.entity.TipoCliente;
+import ecommerce.entity.TipoProduto;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Medição de alocação por thread (depende do JIT): fora da suíte padrão, roda com mvn test -Pperf
+@Tag("perf")
+class LoteEstoquePerfTest {
+
+    private static final int ITENS_POR_CARRINHO = 20;
+    private static final int ITERACOES = 50_000;
+
+    @Test
+    void testAlocacaoPorCheckout_LoteMenorQueListas() {
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        CarrinhoCheckoutDTO carrinho = carrinho();
+        long thread = Thread.currentThread().getId();
+        long sumidouro = 0;
+
+        // Aquecimento para que ambos os caminhos sejam compilados antes da medição
+        for (int i = 0; i < ITERACOES; i++) {
+            sumidouro += comListas(carrinho) + LoteEstoque.deCarrinho(carrinho).tamanho();
+        }
+
+        long inicio = threadMXBean.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < ITERACOES; i++) {
+            sumidouro += comListas(carrinho);
+        }
+        long bytesListas = threadMXBean.getThreadAllocatedBytes(thread) - inicio;
+
+        inicio = threadMXBean.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < ITERACOES; i++) {
+            sumidouro += LoteEstoque.deCarrinho(carrinho).tamanho();
+        }
+        long bytesLote = threadMXBean.getThreadAllocatedBytes(thread) - inicio;
+
+        assertTrue(sumidouro > 0);
+        assertTrue(bytesLote < bytesListas, "lote=" + bytesLote / ITERACOES + " bytes, listas="
+                + bytesListas / ITERACOES + " bytes por checkout");
+    }
+
+    private static CarrinhoCheckoutDTO carrinho() {
+        List<ItemCheckoutDTO> itens = new ArrayList<>();
+        for (long i = 1; i <= ITENS_POR_CARRINHO; i++) {
+            itens.add(new ItemCheckoutDTO(1000L + i, i * 2, BigDecimal.TEN, 1, TipoProduto.LIVRO));
+        }
+        return new CarrinhoCheckoutDTO(1L, 1L, TipoCliente.BRONZE, itens);
+    }
+
+    // Caminho anterior do finalizarCompra: duas passadas com streams montando List<Long>
+    private static int comListas(CarrinhoCheckoutDTO carrinho) {
+        List<Long> produtosIds = carrinho.itens().stream().map(ItemCheckoutDTO::produtoId).collect(Collectors.toList());
+        List<Long> produtosQtds = carrinho.itens().stream().map(ItemCheckoutDTO::quantidade).collect(Collectors.toList());
+        return produtosIds.size() + produtosQtds.size();
+    }
+}
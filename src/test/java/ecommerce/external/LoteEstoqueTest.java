@@ -0,0 +1,78 @@
+package ecommerce.external;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import ecommerce.dto.CarrinhoCheckoutDTO;
+import ecommerce.dto.DisponibilidadeDTO;
+import ecommerce.dto.ItemCheckoutDTO;
+import ecommerce.entity.TipoCliente;
+import ecommerce.entity.TipoProduto;
+import ecommerce.external.fake.EstoqueSimulado;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+class LoteEstoqueTest {
+
+    private static final int ITENS_POR_CARRINHO = 20;
+
+    private static CarrinhoCheckoutDTO carrinho() {
+        List<ItemCheckoutDTO> itens = new ArrayList<>();
+        for (long i = 1; i <= ITENS_POR_CARRINHO; i++) {
+            itens.add(new ItemCheckoutDTO(1000L + i, i * 2, BigDecimal.TEN, 1, TipoProduto.LIVRO));
+        }
+        return new CarrinhoCheckoutDTO(1L, 1L, TipoCliente.BRONZE, itens);
+    }
+
+    @Test
+    void testDeCarrinho_PreencheArraysParalelos() {
+        LoteEstoque lote = LoteEstoque.deCarrinho(carrinho());
+
+        assertEquals(ITENS_POR_CARRINHO, lote.tamanho());
+        assertEquals(1001L, lote.produtoId(0));
+        assertEquals(2L, lote.quantidade(0));
+        assertEquals(1020L, lote.produtoId(19));
+        assertEquals(40L, lote.quantidade(19));
+        assertThrows(IndexOutOfBoundsException.class, () -> lote.produtoId(ITENS_POR_CARRINHO));
+    }
+
+    @Test
+    void testAdicionar_LoteCheio() {
+        LoteEstoque lote = new LoteEstoque(1);
+        lote.adicionar(1L, 1L);
+
+        assertThrows(IllegalStateException.class, () -> lote.adicionar(2L, 1L));
+    }
+
+    @Test
+    void testContratoPadrao_AdaptaParaListas() {
+        IEstoqueExternal estoque = mock(IEstoqueExternal.class, CALLS_REAL_METHODS);
+        doReturn(new DisponibilidadeDTO(true, Collections.emptyList()))
+                .when(estoque).verificarDisponibilidade(anyList(), anyList());
+
+        LoteEstoque lote = new LoteEstoque(2);
+        lote.adicionar(7L, 3L);
+        lote.adicionar(9L, 1L);
+
+        assertTrue(estoque.verificarDisponibilidade(lote).disponivel());
+        verify(estoque).verificarDisponibilidade(List.of(7L, 9L), List.of(3L, 1L));
+    }
+
+    @Test
+    void testEstoqueSimulado_NaoConverteParaListas() {
+        EstoqueSimulado estoque = spy(new EstoqueSimulado());
+        LoteEstoque lote = new LoteEstoque(1);
+        lote.adicionar(7L, 3L);
+
+        assertTrue(estoque.darBaixa(lote).sucesso());
+        estoque.verificarDisponibilidade(lote);
+
+        verify(estoque, never()).darBaixa(anyList(), anyList());
+        verify(estoque, never()).verificarDisponibilidade(anyList(), anyList());
+    }
+}
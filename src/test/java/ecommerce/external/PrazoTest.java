@@ -0,0 +1,29 @@
+package ecommerce.external;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class PrazoTest {
+
+    @Test
+    void testLimitarMillis_ArredondaORestanteParaCima() {
+        Prazo prazo = Prazo.emMillis(1_000);
+
+        long limite = prazo.limitarMillis(5_000);
+
+        // O timeout da chamada nunca termina antes do prazo
+        assertTrue(limite * 1_000_000 >= prazo.restanteNanos());
+        assertTrue(limite <= 1_000);
+    }
+
+    @Test
+    void testLimitarMillis_TimeoutMenorQueORestante() {
+        assertEquals(200, Prazo.emMillis(1_000).limitarMillis(200));
+    }
+
+    @Test
+    void testLimitarMillis_PrazoExpiradoNuncaZero() {
+        assertEquals(1, Prazo.emMillis(0).limitarMillis(200));
+    }
+}
@@ -0,0 +1,107 @@
+package ecommerce.external.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import ecommerce.dto.DisponibilidadeDTO;
+import ecommerce.dto.EstoqueBaixaDTO;
+import ecommerce.external.IEstoqueExternal;
+import ecommerce.external.LoteEstoque;
+import ecommerce.external.Prazo;
+import ecommerce.external.PrazoExpiradoException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+class EstoqueComCacheTest {
+
+    private IEstoqueExternal delegate;
+    private CacheDisponibilidade cache;
+    private EstoqueComCache estoque;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(IEstoqueExternal.class);
+        when(delegate.verificarDisponibilidade(any(LoteEstoque.class)))
+                .thenReturn(new DisponibilidadeDTO(true, Collections.emptyList()));
+        when(delegate.darBaixa(any(LoteEstoque.class))).thenReturn(new EstoqueBaixaDTO(true));
+
+        cache = new CacheDisponibilidade(0.5, 60_000, 1_000, new SimpleMeterRegistry());
+        estoque = new EstoqueComCache(delegate, cache);
+    }
+
+    private static LoteEstoque lote(long produtoId, long quantidade) {
+        LoteEstoque lote = new LoteEstoque(1);
+        lote.adicionar(produtoId, quantidade);
+        return lote;
+    }
+
+    @Test
+    void testVerificarDisponibilidade_AbaixoDoLimiteNaoConsultaRemoto() {
+        cache.registrarEstoque(1L, 100L);
+
+        assertTrue(estoque.verificarDisponibilidade(lote(1L, 10L)).disponivel());
+        verify(delegate, never()).verificarDisponibilidade(any(LoteEstoque.class));
+        assertEquals(1.0, cache.taxaEvitadas(), 0.0);
+    }
+
+    @Test
+    void testVerificarDisponibilidade_PertoDoLimiteConsultaRemoto() {
+        cache.registrarEstoque(1L, 100L);
+
+        estoque.verificarDisponibilidade(lote(1L, 60L));
+        estoque.verificarDisponibilidade(lote(2L, 1L)); // produto sem limite conhecido
+
+        verify(delegate, times(2)).verificarDisponibilidade(any(LoteEstoque.class));
+        assertEquals(0.0, cache.taxaEvitadas(), 0.0);
+    }
+
+    @Test
+    void testDarBaixa_SucessoDescontaDoLimite() {
+        cache.registrarEstoque(1L, 100L);
+
+        estoque.darBaixa(lote(1L, 60L));
+
+        // Limite agora é 40: 10 ainda está abaixo da metade, 30 não
+        assertTrue(cache.cobre(lote(1L, 10L)));
+        assertFalse(cache.cobre(lote(1L, 30L)));
+    }
+
+    @Test
+    void testDarBaixa_FalhaInvalidaProdutos() {
+        cache.registrarEstoque(1L, 100L);
+        when(delegate.darBaixa(any(LoteEstoque.class))).thenReturn(new EstoqueBaixaDTO(false));
+
+        estoque.darBaixa(lote(1L, 1L));
+
+        assertFalse(cache.cobre(lote(1L, 1L)));
+    }
+
+    @Test
+    void testDarBaixa_ExcecaoInvalidaProdutos() {
+        cache.registrarEstoque(1L, 100L);
+        cache.registrarEstoque(2L, 100L);
+        when(delegate.darBaixa(any(LoteEstoque.class))).thenThrow(new RuntimeException("timeout"));
+        when(delegate.darBaixa(any(LoteEstoque.class), any(Prazo.class))).thenThrow(new PrazoExpiradoException("timeout"));
+
+        assertThrows(RuntimeException.class, () -> estoque.darBaixa(lote(1L, 1L)));
+        assertThrows(PrazoExpiradoException.class, () -> estoque.darBaixa(lote(2L, 1L), Prazo.emMillis(1_000)));
+
+        // Sem resposta da baixa o estoque remoto pode ter mudado: nenhum dos dois é mais coberto
+        assertFalse(cache.cobre(lote(1L, 1L)));
+        assertFalse(cache.cobre(lote(2L, 1L)));
+    }
+
+    @Test
+    void testInvalidar() {
+        cache.registrarEstoque(1L, 100L);
+        cache.invalidar(1L);
+
+        estoque.verificarDisponibilidade(lote(1L, 1L));
+
+        verify(delegate).verificarDisponibilidade(any(LoteEstoque.class));
+    }
+}
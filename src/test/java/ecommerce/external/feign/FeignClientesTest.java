@@ -0,0 +1,231 @@
+package ecommerce.external.feign;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import ecommerce.dto.DisponibilidadeDTO;
+import ecommerce.dto.PagamentoDTO;
+import ecommerce.external.IEstoqueExternal;
+import ecommerce.external.IPagamentoExternal;
+import ecommerce.external.LoteEstoque;
+import ecommerce.external.Prazo;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Servidor HTTP local que faz o papel dos serviços de estoque e pagamento
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("feign")
+class FeignClientesTest {
+
+    private static final int THREADS = 16;
+    private static final int CHAMADAS_POR_THREAD = 25;
+    private static final int AQUECIMENTO = 200;
+    // O servidor local demora 5 ms por requisição. Limites com folga para máquinas de um núcleo, mas bem
+    // abaixo do read-timeout do estoque (1,5 s), para onde espera por conexão do pool levaria o p99
+    private static final long P50_MAXIMO_MS = 100;
+    private static final long P99_MAXIMO_MS = 300;
+
+    private static final Set<Integer> conexoes = ConcurrentHashMap.newKeySet();
+    private static final AtomicInteger requisicoesComprimidas = new AtomicInteger();
+    private static final ExecutorService executorServidor = Executors.newFixedThreadPool(THREADS * 2);
+    private static final HttpServer servidor = iniciarServidor();
+
+    @Autowired
+    private IEstoqueExternal estoque;
+
+    @Autowired
+    private IPagamentoExternal pagamento;
+
+    @DynamicPropertySource
+    static void urls(DynamicPropertyRegistry registry) {
+        String url = "http://127.0.0.1:" + servidor.getAddress().getPort();
+        registry.add("estoque.url", () -> url);
+        registry.add("pagamento.url", () -> url);
+    }
+
+    @AfterAll
+    static void pararServidor() {
+        servidor.stop(0);
+        executorServidor.shutdownNow();
+    }
+
+    @Test
+    void testVerificarDisponibilidade_ReutilizaConexoesSobConcorrencia() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futuros = new ArrayList<>();
+        conexoes.clear();
+
+        for (int t = 0; t < THREADS; t++) {
+            futuros.add(executor.submit(() -> {
+                for (int i = 0; i < CHAMADAS_POR_THREAD; i++) {
+                    DisponibilidadeDTO disponibilidade = estoque.verificarDisponibilidade(List.of(1L, 2L), List.of(1L, 3L));
+                    assertTrue(disponibilidade.disponivel());
+                }
+            }));
+        }
+        for (Future<?> futuro : futuros) {
+            futuro.get();
+        }
+        executor.shutdown();
+
+        // Cada thread usa no máximo uma conexão por vez: com reuso, o pool nunca abre mais que THREADS
+        assertTrue(conexoes.size() <= THREADS);
+    }
+
+    // Medição de tempo de parede: fora da suíte padrão, roda com mvn test -Pperf
+    @Test
+    @Tag("perf")
+    void testVerificarDisponibilidade_LatenciaSobConcorrencia() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<long[]>> futuros = new ArrayList<>();
+
+        // Aquecimento: abre as conexões do pool e compila o caminho do cliente antes da medição
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            estoque.verificarDisponibilidade(List.of(1L, 2L), List.of(1L, 3L));
+        }
+        for (int t = 0; t < THREADS; t++) {
+            futuros.add(executor.submit(() -> {
+                long[] latencias = new long[CHAMADAS_POR_THREAD];
+                for (int i = 0; i < CHAMADAS_POR_THREAD; i++) {
+                    long inicio = System.nanoTime();
+                    assertTrue(estoque.verificarDisponibilidade(List.of(1L, 2L), List.of(1L, 3L)).disponivel());
+                    latencias[i] = System.nanoTime() - inicio;
+                }
+                return latencias;
+            }));
+        }
+        long[] todas = new long[THREADS * CHAMADAS_POR_THREAD];
+        for (int t = 0; t < THREADS; t++) {
+            System.arraycopy(futuros.get(t).get(), 0, todas, t * CHAMADAS_POR_THREAD, CHAMADAS_POR_THREAD);
+        }
+        executor.shutdown();
+
+        Arrays.sort(todas);
+        long p50 = todas[todas.length / 2] / 1_000_000;
+        long p99 = todas[(int) Math.ceil(todas.length * 0.99) - 1] / 1_000_000;
+        assertTrue(p50 < P50_MAXIMO_MS, "p50=" + p50 + " ms");
+        assertTrue(p99 < P99_MAXIMO_MS, "p99=" + p99 + " ms");
+    }
+
+    @Test
+    void testDarBaixa_LoteGrandeEnviadoComprimido() {
+        LoteEstoque lote = new LoteEstoque(500);
+        for (long i = 1; i <= 500; i++) {
+            lote.adicionar(i, i);
+        }
+        int antes = requisicoesComprimidas.get();
+
+        assertTrue(estoque.darBaixa(lote).sucesso());
+        assertEquals(antes + 1, requisicoesComprimidas.get());
+    }
+
+    @Test
+    void testAutorizarPagamento() {
+        PagamentoDTO pagamentoDTO = pagamento.autorizarPagamento(1L, 150.0);
+
+        assertTrue(pagamentoDTO.autorizado());
+        assertEquals(42L, pagamentoDTO.transacaoId());
+    }
+
+    @Test
+    void testCancelarPagamento_PrazoLimitaTimeoutDaChamada() {
+        long inicio = System.nanoTime();
+
+        // O endpoint demora 1s; o read-timeout configurado é 3s, mas o prazo restante é de 100 ms
+        assertThrows(RuntimeException.class, () -> pagamento.cancelarPagamento(1L, 42L, Prazo.emMillis(100)));
+        assertTrue((System.nanoTime() - inicio) / 1_000_000 < 1_000);
+    }
+
+    private static HttpServer iniciarServidor() {
+        // Sem TCP_NODELAY, cabeçalho e corpo da resposta em escritas separadas esbarram no ACK atrasado
+        // do cliente (~40 ms por chamada), o que mascararia a latência do próprio cliente
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        try {
+            HttpServer servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            servidor.createContext("/estoque/disponibilidade",
+                    troca -> responder(troca, "{\"disponivel\":true,\"idsProdutosIndisponiveis\":[]}"));
+            servidor.createContext("/estoque/baixa", troca -> responder(troca, "{\"sucesso\":true}"));
+            servidor.createContext("/pagamento/autorizar",
+                    troca -> responder(troca, "{\"autorizado\":true,\"transacaoId\":42}"));
+            servidor.createContext("/pagamento/cancelar", troca -> {
+                try {
+                    Thread.sleep(1_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                // Responde direto, sem registrar a conexão: o cliente já desistiu por timeout
+                troca.sendResponseHeaders(200, -1);
+                troca.close();
+            });
+            servidor.setExecutor(executorServidor);
+            servidor.start();
+            return servidor;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void responder(HttpExchange troca, String json) throws IOException {
+        conexoes.add(troca.getRemoteAddress().getPort());
+
+        InputStream entrada = troca.getRequestBody();
+        if ("gzip".equalsIgnoreCase(troca.getRequestHeaders().getFirst("Content-Encoding"))) {
+            entrada = new GZIPInputStream(entrada);
+            String corpo = new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+            if (corpo.contains("produtosIds")) {
+                requisicoesComprimidas.incrementAndGet();
+            }
+        } else {
+            entrada.readAllBytes();
+        }
+
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        byte[] resposta = json.getBytes(StandardCharsets.UTF_8);
+        String aceita = troca.getRequestHeaders().getFirst("Accept-Encoding");
+        if (aceita != null && aceita.contains("gzip")) {
+            ByteArrayOutputStream comprimida = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(comprimida)) {
+                gzip.write(resposta);
+            }
+            resposta = comprimida.toByteArray();
+            troca.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+
+        troca.getResponseHeaders().add("Content-Type", "application/json");
+        troca.sendResponseHeaders(200, resposta.length);
+        try (OutputStream saida = troca.getResponseBody()) {
+            saida.write(resposta);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package ecommerce.external.hedging;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import ecommerce.dto.DisponibilidadeDTO;
+import ecommerce.dto.EstoqueBaixaDTO;
+import ecommerce.external.IEstoqueExternal;
+import ecommerce.external.LoteEstoque;
+import ecommerce.external.Prazo;
+import ecommerce.external.PrazoExpiradoException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class EstoqueComHedgingTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Estoque em que a primeira consulta demora muito e as seguintes respondem na hora
+    private static class EstoqueLento implements IEstoqueExternal {
+        final AtomicInteger consultas = new AtomicInteger();
+        final AtomicInteger baixas = new AtomicInteger();
+        final CountDownLatch interrompida = new CountDownLatch(1);
+
+        @Override
+        public EstoqueBaixaDTO darBaixa(List<Long> produtosIds, List<Long> produtosQuantidades) {
+            baixas.incrementAndGet();
+            dormir(300);
+            return new EstoqueBaixaDTO(true);
+        }
+
+        @Override
+        public DisponibilidadeDTO verificarDisponibilidade(List<Long> produtosIds, List<Long> produtosQuantidades) {
+            if (consultas.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(2_000);
+                } catch (InterruptedException e) {
+                    interrompida.countDown();
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return new DisponibilidadeDTO(true, Collections.emptyList());
+        }
+    }
+
+    @Test
+    void testVerificarDisponibilidade_HedgeVenceConsultaLenta() throws InterruptedException {
+        EstoqueLento estoque = new EstoqueLento();
+        EstoqueComHedging hedging = new EstoqueComHedging(estoque, 0.95, 20, 5, 1.0, 8, meterRegistry);
+
+        long inicio = System.nanoTime();
+        DisponibilidadeDTO disponibilidade = hedging.verificarDisponibilidade(List.of(1L), List.of(1L));
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        assertTrue(disponibilidade.disponivel());
+        assertTrue(duracaoMs < 1_000);
+        // A original perdedora é cancelada, não fica ocupando a thread até terminar
+        assertTrue(estoque.interrompida.await(1, TimeUnit.SECONDS));
+        hedging.destroy();
+        assertEquals(2, estoque.consultas.get());
+        assertEquals(1.0, meterRegistry.counter("estoque.hedging.enviados").count(), 0.0);
+        assertEquals(1.0, meterRegistry.counter("estoque.hedging.vencidos").count(), 0.0);
+    }
+
+    @Test
+    void testVerificarDisponibilidade_SemCreditoNaoDuplica() {
+        EstoqueLento estoque = new EstoqueLento();
+        EstoqueComHedging hedging = new EstoqueComHedging(estoque, 0.95, 20, 5, 0.0, 8, meterRegistry);
+
+        assertTrue(hedging.verificarDisponibilidade(List.of(1L), List.of(1L)).disponivel());
+        hedging.destroy();
+
+        assertEquals(1, estoque.consultas.get());
+        assertEquals(0.0, meterRegistry.counter("estoque.hedging.enviados").count(), 0.0);
+    }
+
+    @Test
+    void testDarBaixa_NuncaDuplicada() {
+        EstoqueLento estoque = new EstoqueLento();
+        EstoqueComHedging hedging = new EstoqueComHedging(estoque, 0.95, 20, 5, 1.0, 8, meterRegistry);
+
+        assertTrue(hedging.darBaixa(List.of(1L), List.of(1L)).sucesso());
+        hedging.destroy();
+
+        assertEquals(1, estoque.baixas.get());
+        assertEquals(0.0, meterRegistry.counter("estoque.hedging.enviados").count(), 0.0);
+    }
+
+    @Test
+    void testVerificarDisponibilidade_ErroSemHedgePropaga() {
+        IEstoqueExternal estoque = new EstoqueLento() {
+            @Override
+            public DisponibilidadeDTO verificarDisponibilidade(List<Long> produtosIds, List<Long> produtosQuantidades) {
+                throw new IllegalStateException("estoque indisponível");
+            }
+        };
+        EstoqueComHedging hedging = new EstoqueComHedging(estoque, 0.95, 20, 5, 1.0, 8, meterRegistry);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> hedging.verificarDisponibilidade(List.of(1L), List.of(1L)));
+        hedging.destroy();
+        assertEquals("estoque indisponível", e.getMessage());
+    }
+
+    @Test
+    void testVerificarDisponibilidade_PrazoLimitaEspera() {
+        EstoqueLento estoque = new EstoqueLento();
+        EstoqueComHedging hedging = new EstoqueComHedging(estoque, 0.95, 20, 5, 0.0, 8, meterRegistry);
+        LoteEstoque lote = new LoteEstoque(1);
+        lote.adicionar(1L, 1L);
+
+        long inicio = System.nanoTime();
+        assertThrows(PrazoExpiradoException.class,
+                () -> hedging.verificarDisponibilidade(lote, Prazo.emMillis(100)));
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        hedging.destroy();
+
+        assertTrue(duracaoMs < 1_000);
+    }
+
+    @Test
+    void testVerificarDisponibilidade_OriginalCanceladaEntraNaJanelaCensurada() throws InterruptedException {
+        EstoqueLento estoque = new EstoqueLento();
+        EstoqueComHedging hedging = new EstoqueComHedging(estoque, 0.95, 50, 5, 1.0, 8, meterRegistry);
+
+        // O hedge (enviado aos 50 ms) responde na hora: a original entra com o tempo até o cancelamento,
+        // não com os 2s que levaria, nem fica de fora da janela
+        assertTrue(hedging.verificarDisponibilidade(List.of(1L), List.of(1L)).disponivel());
+
+        double atrasoMs = 50;
+        long limite = System.nanoTime() + 5_000_000_000L;
+        while (atrasoMs == 50 && System.nanoTime() < limite) {
+            Thread.sleep(100);
+            atrasoMs = meterRegistry.get("estoque.hedging.atraso").gauge().value();
+        }
+        hedging.destroy();
+
+        assertTrue(atrasoMs > 50 && atrasoMs < 1_000, "atraso=" + atrasoMs + " ms");
+    }
+
+    @Test
+    void testVerificarDisponibilidade_SemThreadLivreRodaNoChamador() throws Exception {
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        EstoqueLento estoque = new EstoqueLento() {
+            @Override
+            public DisponibilidadeDTO verificarDisponibilidade(List<Long> produtosIds, List<Long> produtosQuantidades) {
+                threads.add(Thread.currentThread().getName());
+                return super.verificarDisponibilidade(produtosIds, produtosQuantidades);
+            }
+        };
+        EstoqueComHedging hedging = new EstoqueComHedging(estoque, 0.95, 20, 5, 1.0, 1, meterRegistry);
+
+        // A primeira consulta (2s) ocupa a única thread do pool
+        Thread lenta = new Thread(() -> hedging.verificarDisponibilidade(List.of(1L), List.of(1L)));
+        lenta.start();
+        while (threads.isEmpty()) {
+            Thread.sleep(5);
+        }
+
+        assertTrue(hedging.verificarDisponibilidade(List.of(1L), List.of(1L)).disponivel());
+        assertEquals(Thread.currentThread().getName(), threads.get(1));
+        hedging.destroy();
+        lenta.join();
+    }
+
+    private static void dormir(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
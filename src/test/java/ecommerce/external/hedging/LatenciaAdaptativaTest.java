@@ -0,0 +1,46 @@
+package ecommerce.external.hedging;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class LatenciaAdaptativaTest {
+
+    @Test
+    void testRecalcular_AtrasoEhOPercentilDaJanela() {
+        LatenciaAdaptativa latencias = new LatenciaAdaptativa(100, 0.95, 50, 5);
+        assertEquals(50, latencias.atrasoNanos());
+
+        for (long i = 1; i <= 100; i++) {
+            latencias.registrar(i * 10);
+        }
+        // Registrar não recalcula: o atraso só muda quando a thread de fundo recalcula
+        assertEquals(50, latencias.atrasoNanos());
+
+        latencias.recalcular();
+        assertEquals(950, latencias.atrasoNanos());
+    }
+
+    @Test
+    void testRecalcular_JanelaCircularDescartaAmostrasAntigas() {
+        LatenciaAdaptativa latencias = new LatenciaAdaptativa(10, 0.5, 50, 1);
+        for (int i = 0; i < 10; i++) {
+            latencias.registrar(1_000);
+        }
+        for (int i = 0; i < 10; i++) {
+            latencias.registrar(100);
+        }
+
+        latencias.recalcular();
+        assertEquals(100, latencias.atrasoNanos());
+    }
+
+    @Test
+    void testRecalcular_RespeitaOMinimo() {
+        LatenciaAdaptativa latencias = new LatenciaAdaptativa(10, 0.95, 50, 20);
+        latencias.registrar(1);
+
+        latencias.recalcular();
+        assertEquals(20, latencias.atrasoNanos());
+    }
+}
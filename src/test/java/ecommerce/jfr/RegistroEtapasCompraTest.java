@@ -0,0 +1,77 @@
+package ecommerce.jfr;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import ecommerce.dto.CarrinhoCheckoutDTO;
+import ecommerce.entity.CarrinhoDeCompras;
+import ecommerce.entity.Cliente;
+import ecommerce.entity.ItemCompra;
+import ecommerce.entity.Produto;
+import ecommerce.entity.TipoCliente;
+import ecommerce.entity.TipoProduto;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+class RegistroEtapasCompraTest {
+
+    @TempDir
+    Path diretorio;
+
+    private final CarrinhoCheckoutDTO carrinho = CarrinhoCheckoutDTO.de(new CarrinhoDeCompras(7L,
+            new Cliente(1L, "teste", "rua teste", TipoCliente.PRATA),
+            List.of(new ItemCompra(1L, new Produto(1L, "Produto", "Descrição", BigDecimal.TEN, 3, TipoProduto.LIVRO), 2L)),
+            LocalDate.now()));
+
+    @Test
+    void testExecutar_DesabilitadoApenasExecutaAEtapa() {
+        RegistroEtapasCompra registro = new RegistroEtapasCompra(false);
+
+        assertEquals("ok", registro.executar(EtapaCompra.CALCULO_CUSTO, 7L, carrinho, () -> "ok"));
+    }
+
+    @Test
+    void testExecutar_GravaEventosEAnalisePorEtapa() throws Exception {
+        RegistroEtapasCompra registro = new RegistroEtapasCompra(true);
+        Path arquivo = diretorio.resolve("checkout.jfr");
+
+        try (Recording gravacao = new Recording()) {
+            gravacao.enable(EtapaCompraEvent.NOME);
+            gravacao.start();
+
+            registro.executar(EtapaCompra.DISPONIBILIDADE, 7L, carrinho, () -> true, r -> r);
+            registro.executar(EtapaCompra.PAGAMENTO, 7L, carrinho, () -> false, r -> r);
+            assertThrows(IllegalStateException.class, () -> registro.executar(EtapaCompra.BAIXA_ESTOQUE, 7L, carrinho,
+                    () -> {
+                        throw new IllegalStateException("falha remota");
+                    }));
+
+            gravacao.stop();
+            gravacao.dump(arquivo);
+        }
+
+        List<RecordedEvent> eventos = RecordingFile.readAllEvents(arquivo);
+        assertEquals(3, eventos.size());
+        RecordedEvent disponibilidade = eventos.stream()
+                .filter(e -> e.getString("etapa").equals("DISPONIBILIDADE")).findFirst().orElseThrow();
+        assertEquals(7L, disponibilidade.getLong("carrinhoId"));
+        assertEquals(1, disponibilidade.getInt("quantidadeItens"));
+        assertEquals(6L, disponibilidade.getLong("pesoTotal"));
+        assertEquals("PRATA", disponibilidade.getString("tipoCliente"));
+        assertEquals(RegistroEtapasCompra.SUCESSO, disponibilidade.getString("resultado"));
+
+        List<AnaliseEtapasCompra.EstatisticaEtapa> analise = AnaliseEtapasCompra.analisar(arquivo);
+        assertEquals(List.of("DISPONIBILIDADE", "PAGAMENTO", "BAIXA_ESTOQUE"),
+                analise.stream().map(AnaliseEtapasCompra.EstatisticaEtapa::etapa).toList());
+        assertEquals(0, analise.get(0).falhas());
+        assertEquals(1, analise.get(1).falhas());
+        assertEquals(1, analise.get(2).falhas());
+    }
+}
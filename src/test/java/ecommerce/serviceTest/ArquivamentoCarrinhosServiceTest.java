@@ -0,0 +1,73 @@
+package ecommerce.serviceTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import ecommerce.dto.ArquivamentoDTO;
+import ecommerce.entity.*;
+import ecommerce.repository.CarrinhoDeComprasRepository;
+import ecommerce.repository.ClienteRepository;
+import ecommerce.repository.ProdutoRepository;
+import ecommerce.service.ArquivamentoCarrinhosService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest(properties = { "carrinho.arquivamento.tamanho-lote=2", "carrinho.arquivamento.pausa-ms=0" })
+class ArquivamentoCarrinhosServiceTest {
+
+    @Autowired
+    private ArquivamentoCarrinhosService arquivamentoService;
+
+    @Autowired
+    private CarrinhoDeComprasRepository carrinhoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testArquivar_MoveSomenteCarrinhosAnterioresAoCorte() {
+        Cliente cliente = clienteRepository.save(new Cliente(null, "teste", "rua teste", TipoCliente.BRONZE));
+        Produto produto = produtoRepository.save(
+                new Produto(null, "Produto", "Descrição do produto", BigDecimal.TEN, 1, TipoProduto.LIVRO));
+        LocalDate corte = LocalDate.of(2020, 1, 1);
+
+        List<Long> antigos = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            antigos.add(salvarCarrinho(cliente, produto, corte.minusDays(i + 1)).getId());
+        }
+        CarrinhoDeCompras recente = salvarCarrinho(cliente, produto, corte.plusDays(1));
+
+        ArquivamentoDTO resultado = arquivamentoService.arquivar(corte);
+
+        assertEquals(5L, resultado.carrinhos());
+        assertEquals(10L, resultado.itens());
+        assertEquals(3, resultado.lotes());
+        for (Long id : antigos) {
+            assertFalse(carrinhoRepository.existsById(id));
+            assertEquals(1, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM carrinho_de_compras_arquivado WHERE id = ?", Integer.class, id));
+            assertEquals(2, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM item_compra_arquivado WHERE carrinho_id = ?", Integer.class, id));
+        }
+        assertTrue(carrinhoRepository.findByIdAndCliente(recente.getId(), cliente).isPresent());
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM item_compra WHERE carrinho_id = ?", Integer.class, recente.getId()));
+    }
+
+    private CarrinhoDeCompras salvarCarrinho(Cliente cliente, Produto produto, LocalDate data) {
+        List<ItemCompra> itens = new ArrayList<>(List.of(new ItemCompra(null, produto, 1L), new ItemCompra(null, produto, 2L)));
+        return carrinhoRepository.save(new CarrinhoDeCompras(null, cliente, itens, data));
+    }
+}
@@ -0,0 +1,97 @@
+package ecommerce.serviceTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import ecommerce.dto.AtualizacaoLoteDTO;
+import ecommerce.entity.Produto;
+import ecommerce.entity.TipoProduto;
+import ecommerce.event.ProdutosAtualizadosEvent;
+import ecommerce.repository.ProdutoRepository;
+import ecommerce.service.AtualizacaoCatalogoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest(properties = "catalogo.atualizacao.tamanho-lote=1000")
+@RecordApplicationEvents
+class AtualizacaoCatalogoServiceTest {
+
+    @Autowired
+    private AtualizacaoCatalogoService atualizacaoCatalogoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private ApplicationEvents eventos;
+
+    @Test
+    void testAtualizar_GravaEmLotesEInvalidaUmaVez() {
+        List<Produto> produtos = new ArrayList<>();
+        for (int i = 0; i < 2_500; i++) {
+            produtos.add(new Produto(null, "Produto " + i, "Descrição", BigDecimal.ONE, 1, TipoProduto.ROUPA));
+        }
+        produtos = produtoRepository.saveAll(produtos);
+
+        StringBuilder csv = new StringBuilder("id,preco,peso\n");
+        for (Produto produto : produtos) {
+            csv.append(produto.getId()).append(",19.90,3\n");
+        }
+        csv.append("999999999,10.00,1\n"); // produto inexistente
+
+        AtualizacaoLoteDTO resultado = atualizacaoCatalogoService.atualizar(new StringReader(csv.toString()));
+
+        assertEquals(2_501L, resultado.registros());
+        assertEquals(2_500L, resultado.atualizados());
+        assertEquals(3, resultado.lotes());
+        assertTrue(resultado.registrosPorSegundo() > 0);
+
+        Produto atualizado = produtoRepository.findById(produtos.get(1_234).getId()).orElseThrow();
+        assertEquals(0, new BigDecimal("19.90").compareTo(atualizado.getPreco()));
+        assertEquals(3, atualizado.getPeso());
+
+        List<ProdutosAtualizadosEvent> invalidacoes = eventos.stream(ProdutosAtualizadosEvent.class).toList();
+        assertEquals(1, invalidacoes.size());
+        assertEquals(2_500, invalidacoes.get(0).produtosIds().length);
+    }
+
+    @Test
+    void testAtualizar_RegistroInvalido() {
+        assertThrows(IllegalArgumentException.class,
+                () -> atualizacaoCatalogoService.atualizar(new StringReader("1,abc,2\n")));
+        assertThrows(IllegalArgumentException.class,
+                () -> atualizacaoCatalogoService.atualizar(new StringReader("1,10.00\n")));
+    }
+
+    @Test
+    void testAtualizar_RegistroInvalidoDepoisDeUmLoteInvalidaOQueFoiGravado() {
+        List<Produto> produtos = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            produtos.add(new Produto(null, "Produto " + i, "Descrição", BigDecimal.ONE, 1, TipoProduto.ROUPA));
+        }
+        produtos = produtoRepository.saveAll(produtos);
+
+        StringBuilder csv = new StringBuilder();
+        for (Produto produto : produtos) {
+            csv.append(produto.getId()).append(",5.00,2\n");
+        }
+        csv.append("1,abc,2\n");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> atualizacaoCatalogoService.atualizar(new StringReader(csv.toString())));
+
+        // O primeiro lote ficou gravado e seus produtos foram invalidados
+        Produto gravado = produtoRepository.findById(produtos.get(999).getId()).orElseThrow();
+        assertEquals(0, new BigDecimal("5.00").compareTo(gravado.getPreco()));
+        List<ProdutosAtualizadosEvent> invalidacoes = eventos.stream(ProdutosAtualizadosEvent.class).toList();
+        assertEquals(1, invalidacoes.size());
+        assertEquals(1_000, invalidacoes.get(0).produtosIds().length);
+    }
+}
@@ -0,0 +1,131 @@
+package ecommerce.serviceTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import ecommerce.dto.CarrinhoCheckoutDTO;
+import ecommerce.dto.ItemCheckoutDTO;
+import ecommerce.entity.*;
+import ecommerce.repository.CarrinhoDeComprasRepository;
+import ecommerce.repository.ClienteRepository;
+import ecommerce.repository.ProdutoRepository;
+import ecommerce.service.CarrinhoDeComprasService;
+import ecommerce.service.ClienteService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest
+class CarregamentoCheckoutTest {
+
+    private static final int ITENS = 20;
+
+    @Autowired
+    private CarrinhoDeComprasService carrinhoService;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private CarrinhoDeComprasRepository carrinhoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testBuscarParaCheckout_ProjecaoSemEntidadesGerenciadas() {
+        Cliente cliente = clienteRepository.save(new Cliente(null, "teste", "rua teste", TipoCliente.PRATA));
+        CarrinhoDeCompras carrinho = salvarCarrinho(cliente);
+
+        CarrinhoCheckoutDTO checkout = carrinhoService.buscarParaCheckout(carrinho.getId(), cliente.getId(),
+                clienteService.buscarTipoPorId(cliente.getId()));
+
+        assertEquals(TipoCliente.PRATA, checkout.tipoCliente());
+        assertEquals(ITENS, checkout.itens().size());
+        ItemCheckoutDTO primeiro = checkout.itens().get(0);
+        assertEquals(carrinho.getItens().get(0).getProduto().getId(), primeiro.produtoId());
+        assertEquals(1L, primeiro.quantidade());
+        assertEquals(0, BigDecimal.TEN.compareTo(primeiro.preco()));
+        assertEquals(2, primeiro.peso());
+        assertEquals(0.0, meterRegistry.summary("compra.contexto-persistencia.entidades").max(), 0.0);
+    }
+
+    @Test
+    void testBuscarParaCheckout_CarrinhoDeOutroCliente() {
+        Cliente dono = clienteRepository.save(new Cliente(null, "dono", "rua teste", TipoCliente.OURO));
+        Cliente outro = clienteRepository.save(new Cliente(null, "outro", "rua teste", TipoCliente.OURO));
+        CarrinhoDeCompras carrinho = salvarCarrinho(dono);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> carrinhoService.buscarParaCheckout(carrinho.getId(), outro.getId(), TipoCliente.OURO));
+        assertEquals("Carrinho não encontrado.", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> clienteService.buscarTipoPorId(-1L));
+    }
+
+    // Compara o caminho antigo (entidades gerenciadas em transação de escrita) com a projeção
+    @Test
+    void testCarregamento_ContextoDePersistenciaEFlush() {
+        Cliente cliente = clienteRepository.save(new Cliente(null, "teste", "rua teste", TipoCliente.BRONZE));
+        CarrinhoDeCompras salvo = salvarCarrinho(cliente);
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+
+        long[] gerenciado = transacao.execute(status -> {
+            CarrinhoDeCompras carrinho = carrinhoService.buscarPorCarrinhoIdEClienteId(salvo.getId(),
+                    clienteService.buscarPorId(cliente.getId()));
+            carrinho.getItens().forEach(item -> item.getProduto().getPeso());
+            return medir();
+        });
+
+        TransactionTemplate somenteLeitura = new TransactionTemplate(transactionManager);
+        somenteLeitura.setReadOnly(true);
+        long[] projecao = somenteLeitura.execute(status -> {
+            carrinhoService.buscarParaCheckout(salvo.getId(), cliente.getId(), TipoCliente.BRONZE);
+            return medir();
+        });
+
+        assertTrue(gerenciado[0] >= 2 + 2 * ITENS);
+        assertEquals(0, projecao[0]);
+        // As sessões fechadas acima registram no MeterRegistry da aplicação
+        assertTrue(meterRegistry.get("jpa.sessao.flush").timer().count() >= 2);
+    }
+
+    // [entidades no contexto de persistência, duração do flush em ns]
+    private long[] medir() {
+        Session sessao = entityManager.unwrap(Session.class);
+        long entidades = sessao.getStatistics().getEntityCount();
+        long inicio = System.nanoTime();
+        sessao.flush();
+        return new long[] { entidades, System.nanoTime() - inicio };
+    }
+
+    private CarrinhoDeCompras salvarCarrinho(Cliente cliente) {
+        List<ItemCompra> itens = new ArrayList<>();
+        for (int i = 0; i < ITENS; i++) {
+            Produto produto = produtoRepository.save(
+                    new Produto(null, "Produto " + i, "Descrição do produto", BigDecimal.TEN, 2, TipoProduto.LIVRO));
+            itens.add(new ItemCompra(null, produto, 1L));
+        }
+        return carrinhoRepository.save(new CarrinhoDeCompras(null, cliente, itens, LocalDate.now()));
+    }
+}
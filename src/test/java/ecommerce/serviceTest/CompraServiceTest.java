@@ -2,18 +2,33 @@ package ecommerce.serviceTest;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import ecommerce.dto.CarrinhoCheckoutDTO;
 import ecommerce.dto.CompraDTO;
+import ecommerce.dto.CustoCompraDTO;
 import ecommerce.dto.DisponibilidadeDTO;
 import ecommerce.dto.EstoqueBaixaDTO;
 import ecommerce.dto.PagamentoDTO;
+import ecommerce.event.PublicadorComprasFinalizadas;
 import ecommerce.entity.*;
 import ecommerce.external.IEstoqueExternal;
 import ecommerce.external.IPagamentoExternal;
+import ecommerce.external.LoteEstoque;
+import ecommerce.external.Prazo;
+import ecommerce.external.PrazoExpiradoException;
+import ecommerce.jfr.RegistroEtapasCompra;
 import ecommerce.service.CarrinhoDeComprasService;
 import ecommerce.service.ClienteService;
 import ecommerce.service.CompraService;
+import ecommerce.service.ControlePrazoCompra;
+import ecommerce.vendas.AgregadosVendas;
+import ecommerce.vendas.HistoricoCompras;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -21,6 +36,7 @@ import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -41,6 +57,23 @@ class CompraServiceTest {
     @Mock
     private IPagamentoExternal pagamentoExternal;
 
+    @Mock
+    private PublicadorComprasFinalizadas publicador;
+
+    @Mock
+    private AgregadosVendas agregados;
+
+    @Mock
+    private HistoricoCompras historico;
+
+    @Spy
+    private RegistroEtapasCompra registroEtapas = new RegistroEtapasCompra(false);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ControlePrazoCompra controlePrazo = new ControlePrazoCompra(meterRegistry, 20, 2_000);
+
     @InjectMocks
     private CompraService compraService;
 
@@ -60,11 +93,13 @@ class CompraServiceTest {
         List<ItemCompra> itens = List.of(itemCompra);
 
         carrinho = new CarrinhoDeCompras();
+        carrinho.setId(1L);
         carrinho.setCliente(cliente);
         carrinho.setItens(itens);
 
-        when(clienteService.buscarPorId(anyLong())).thenReturn(cliente);
-        when(carrinhoService.buscarPorCarrinhoIdEClienteId(anyLong(), any(Cliente.class))).thenReturn(carrinho);
+        when(clienteService.buscarTipoPorId(anyLong())).thenReturn(cliente.getTipo());
+        when(carrinhoService.buscarParaCheckout(anyLong(), anyLong(), any(TipoCliente.class)))
+                .thenReturn(CarrinhoCheckoutDTO.de(carrinho));
     }
 
     @ParameterizedTest
@@ -132,35 +167,38 @@ class CompraServiceTest {
     @Test
     void testFinalizarCompra_Sucesso() {
 
-        when(estoqueExternal.verificarDisponibilidade(anyList(), anyList()))
+        when(estoqueExternal.verificarDisponibilidade(any(LoteEstoque.class), any(Prazo.class)))
                 .thenReturn(new DisponibilidadeDTO(true, Collections.emptyList()));
-        when(pagamentoExternal.autorizarPagamento(anyLong(), anyDouble()))
+        when(pagamentoExternal.autorizarPagamento(anyLong(), anyDouble(), any(Prazo.class)))
                 .thenReturn(new PagamentoDTO(true, 123L));
 
 
         EstoqueBaixaDTO baixaDTO = new EstoqueBaixaDTO(true);
-        when(estoqueExternal.darBaixa(anyList(), anyList())).thenReturn(baixaDTO);
+        when(estoqueExternal.darBaixa(any(LoteEstoque.class), any(Prazo.class))).thenReturn(baixaDTO);
 
 
-        CompraDTO resultado = compraService.finalizarCompra(1L, 1L);
+        CompraDTO resultado = compraService.finalizarCompra(1L, 1L, Prazo.emMillis(5_000));
 
 
         assertNotNull(resultado);
         assertTrue(resultado.sucesso());
         assertEquals("Compra finalizada com sucesso.", resultado.mensagem());
         assertEquals(123L, resultado.transacaoPagamentoId());
+        verify(publicador).publicar(eq(1L), eq(1L), eq(123L), any(BigDecimal.class));
+        verify(agregados).registrar(any(CarrinhoCheckoutDTO.class), any(CustoCompraDTO.class));
+        verify(historico).registrar(any(CarrinhoCheckoutDTO.class), any(CustoCompraDTO.class), eq(123L));
     }
 
     @Test
     void testFinalizarCompra_EstoqueIndisponivel() {
 
         // Mock do estoque (produtos indisponíveis)
-        when(estoqueExternal.verificarDisponibilidade(anyList(), anyList()))
+        when(estoqueExternal.verificarDisponibilidade(any(LoteEstoque.class), any(Prazo.class)))
                 .thenReturn(new DisponibilidadeDTO(false, List.of(1L)));
 
 
         Exception exception = assertThrows(IllegalStateException.class, () -> {
-            compraService.finalizarCompra(1L, 1L);
+            compraService.finalizarCompra(1L, 1L, Prazo.emMillis(5_000));
         });
 
         assertEquals("Itens fora de estoque.", exception.getMessage());
@@ -170,15 +208,15 @@ class CompraServiceTest {
     void testFinalizarCompra_PagamentoNaoAutorizado() {
 
 
-        when(estoqueExternal.verificarDisponibilidade(anyList(), anyList()))
+        when(estoqueExternal.verificarDisponibilidade(any(LoteEstoque.class), any(Prazo.class)))
                 .thenReturn(new DisponibilidadeDTO(true, Collections.emptyList()));
 
         // Mock do pagamento não autorizado
-        when(pagamentoExternal.autorizarPagamento(anyLong(), anyDouble()))
+        when(pagamentoExternal.autorizarPagamento(anyLong(), anyDouble(), any(Prazo.class)))
                 .thenReturn(new PagamentoDTO(false, null));
 
         Exception exception = assertThrows(IllegalStateException.class, () -> {
-            compraService.finalizarCompra(1L, 1L);
+            compraService.finalizarCompra(1L, 1L, Prazo.emMillis(5_000));
         });
 
         assertEquals("Pagamento não autorizado.", exception.getMessage());
@@ -187,23 +225,125 @@ class CompraServiceTest {
     @Test
     void testFinalizarCompra_ErroBaixaEstoque() {
 
-        when(estoqueExternal.verificarDisponibilidade(anyList(), anyList()))
+        when(estoqueExternal.verificarDisponibilidade(any(LoteEstoque.class), any(Prazo.class)))
                 .thenReturn(new DisponibilidadeDTO(true, Collections.emptyList()));
 
 
-        when(pagamentoExternal.autorizarPagamento(anyLong(), anyDouble()))
+        when(pagamentoExternal.autorizarPagamento(anyLong(), anyDouble(), any(Prazo.class)))
                 .thenReturn(new PagamentoDTO(true, 123L));
 
         // Mock da baixa no estoque (falha)
         EstoqueBaixaDTO baixaDTO = new EstoqueBaixaDTO(false);
-        when(estoqueExternal.darBaixa(anyList(), anyList())).thenReturn(baixaDTO);
+        when(estoqueExternal.darBaixa(any(LoteEstoque.class), any(Prazo.class))).thenReturn(baixaDTO);
 
 
         Exception exception = assertThrows(IllegalStateException.class, () -> {
-            compraService.finalizarCompra(1L, 1L);
+            compraService.finalizarCompra(1L, 1L, Prazo.emMillis(5_000));
         });
 
         assertEquals("Erro ao dar baixa no estoque.", exception.getMessage());
+        verify(pagamentoExternal).cancelarPagamento(eq(1L), eq(123L), any(Prazo.class));
+        assertEquals(1.0, compensacoes("cancelado"), 0.0);
+        assertEquals(0.0, compensacoes("baixa_ambigua"), 0.0);
+    }
+
+    @Test
+    void testFinalizarCompra_PrazoEsgotadoNaoConsultaEstoque() {
+
+        // Sobra menos que o mínimo por chamada depois do carregamento
+        assertThrows(PrazoExpiradoException.class, () -> {
+            compraService.finalizarCompra(CarrinhoCheckoutDTO.de(carrinho), Prazo.emMillis(5));
+        });
+
+        verify(estoqueExternal, never()).verificarDisponibilidade(any(LoteEstoque.class), any(Prazo.class));
+        verify(pagamentoExternal, never()).autorizarPagamento(anyLong(), anyDouble(), any(Prazo.class));
+        assertEquals(1.0, meterRegistry.counter("compra.prazo.expirado", "etapa", "DISPONIBILIDADE").count(), 0.0);
+    }
+
+    @Test
+    void testFinalizarCompra_PrazoEsgotadoNaBaixaCancelaPagamento() {
+
+        when(estoqueExternal.verificarDisponibilidade(any(LoteEstoque.class), any(Prazo.class)))
+                .thenReturn(new DisponibilidadeDTO(true, Collections.emptyList()));
+        when(pagamentoExternal.autorizarPagamento(anyLong(), anyDouble(), any(Prazo.class)))
+                .thenReturn(new PagamentoDTO(true, 123L));
+        when(estoqueExternal.darBaixa(any(LoteEstoque.class), any(Prazo.class)))
+                .thenThrow(new PrazoExpiradoException("timeout"));
+
+        assertThrows(PrazoExpiradoException.class, () -> {
+            compraService.finalizarCompra(1L, 1L, Prazo.emMillis(5_000));
+        });
+
+        verify(pagamentoExternal).cancelarPagamento(eq(1L), eq(123L), any(Prazo.class));
+        verify(publicador, never()).publicar(anyLong(), anyLong(), anyLong(), any(BigDecimal.class));
+        verify(historico, never()).registrar(any(CarrinhoCheckoutDTO.class), any(CustoCompraDTO.class), anyLong());
+        assertEquals(1.0, meterRegistry.counter("compra.prazo.expirado", "etapa", "BAIXA_ESTOQUE").count(), 0.0);
+        assertEquals(1.0, compensacoes("baixa_ambigua"), 0.0);
+        assertEquals(1.0, compensacoes("cancelado"), 0.0);
+    }
+
+    @Test
+    void testFinalizarCompra_FalhaNoCancelamentoContadaESuprimida() {
+
+        when(estoqueExternal.verificarDisponibilidade(any(LoteEstoque.class), any(Prazo.class)))
+                .thenReturn(new DisponibilidadeDTO(true, Collections.emptyList()));
+        when(pagamentoExternal.autorizarPagamento(anyLong(), anyDouble(), any(Prazo.class)))
+                .thenReturn(new PagamentoDTO(true, 123L));
+        when(estoqueExternal.darBaixa(any(LoteEstoque.class), any(Prazo.class)))
+                .thenThrow(new PrazoExpiradoException("timeout"));
+        doThrow(new RuntimeException("pagamento indisponível"))
+                .when(pagamentoExternal).cancelarPagamento(anyLong(), anyLong(), any(Prazo.class));
+
+        PrazoExpiradoException exception = assertThrows(PrazoExpiradoException.class, () -> {
+            compraService.finalizarCompra(1L, 1L, Prazo.emMillis(5_000));
+        });
+
+        // A falha original segue para o chamador; a do cancelamento vai junto, suprimida
+        assertEquals(1, exception.getSuppressed().length);
+        assertEquals("pagamento indisponível", exception.getSuppressed()[0].getMessage());
+        assertEquals(1.0, compensacoes("baixa_ambigua"), 0.0);
+        assertEquals(1.0, compensacoes("falha_cancelamento"), 0.0);
+        assertEquals(0.0, compensacoes("cancelado"), 0.0);
+    }
+
+    @Test
+    void testFinalizarCompra_FalhaQueConsomeOPrazoViraExpiracao() {
+
+        // Timeout de leitura limitado pelo prazo: a chamada falha quando quase nada resta dele
+        when(estoqueExternal.verificarDisponibilidade(any(LoteEstoque.class), any(Prazo.class))).thenAnswer(chamada -> {
+            Thread.sleep(60);
+            throw new RuntimeException("Read timed out");
+        });
+
+        assertThrows(PrazoExpiradoException.class, () -> {
+            compraService.finalizarCompra(CarrinhoCheckoutDTO.de(carrinho), Prazo.emMillis(70));
+        });
+
+        assertEquals(1.0, meterRegistry.counter("compra.prazo.expirado", "etapa", "DISPONIBILIDADE").count(), 0.0);
+    }
+
+    @Test
+    void testFinalizarCompra_PrazoCurtoDepoisDaAutorizacaoAindaDaBaixa() {
+
+        when(estoqueExternal.verificarDisponibilidade(any(LoteEstoque.class), any(Prazo.class)))
+                .thenReturn(new DisponibilidadeDTO(true, Collections.emptyList()));
+        // A autorização consome quase todo o prazo: sobra menos que o mínimo por chamada
+        when(pagamentoExternal.autorizarPagamento(anyLong(), anyDouble(), any(Prazo.class))).thenAnswer(chamada -> {
+            Thread.sleep(60);
+            return new PagamentoDTO(true, 123L);
+        });
+        when(estoqueExternal.darBaixa(any(LoteEstoque.class), any(Prazo.class))).thenReturn(new EstoqueBaixaDTO(true));
+
+        CompraDTO resultado = compraService.finalizarCompra(CarrinhoCheckoutDTO.de(carrinho), Prazo.emMillis(70));
+
+        assertTrue(resultado.sucesso());
+        verify(estoqueExternal).darBaixa(any(LoteEstoque.class), any(Prazo.class));
+        verify(pagamentoExternal, never()).cancelarPagamento(anyLong(), anyLong(), any(Prazo.class));
+        assertEquals(0.0, compensacoes("baixa_ambigua"), 0.0);
+    }
+
+    private double compensacoes(String resultado) {
+        return meterRegistry.counter("compra.prazo.compensacao", "resultado", resultado).count();
     }
 
 }
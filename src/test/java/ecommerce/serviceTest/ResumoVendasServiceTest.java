@@ -0,0 +1,144 @@
+package ecommerce.serviceTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import ecommerce.dto.CarrinhoCheckoutDTO;
+import ecommerce.dto.CustoCompraDTO;
+import ecommerce.dto.ItemCheckoutDTO;
+import ecommerce.dto.TotaisVendasDTO;
+import ecommerce.dto.TotalVendasDTO;
+import ecommerce.entity.*;
+import ecommerce.service.ResumoVendasService;
+import ecommerce.vendas.AgregadosVendas;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@SpringBootTest
+class ResumoVendasServiceTest {
+
+    private static final String RECEITA_PRATA = "SELECT receita_centavos FROM resumo_vendas "
+            + "WHERE dia = ? AND dimensao = 'TIPO_CLIENTE' AND chave = 'PRATA'";
+
+    @Autowired
+    private ResumoVendasService resumoVendasService;
+
+    @Autowired
+    private AgregadosVendas agregados;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testReconciliar_RecalculaDiaAPartirDoHistorico() {
+        LocalDate dia = LocalDate.of(2021, 3, 10);
+
+        // Duas compras iguais gravadas no checkout: 2 x 50 (2kg) + 1 x 200 (5kg) = 300, 9kg -> frete 18,
+        // pela metade para PRATA. Os produtos não existem no catálogo: a reconciliação só lê o histórico.
+        for (int i = 0; i < 2; i++) {
+            Long compraId = inserirCompra(dia, TipoCliente.PRATA, "300", "0", "9", "1");
+            inserirItem(compraId, 9_101L, 2L, "50", 2, TipoProduto.ROUPA);
+            inserirItem(compraId, 9_102L, 1L, "200", 5, TipoProduto.MOVEL);
+        }
+        TotalVendasDTO geralAntes = resumoVendasService.totais().porTipoCliente().get(TipoCliente.PRATA);
+
+        resumoVendasService.reconciliar(dia);
+
+        TotaisVendasDTO totais = resumoVendasService.totaisDoDia(dia);
+        TotalVendasDTO prata = totais.porTipoCliente().get(TipoCliente.PRATA);
+        assertEquals(2L, prata.quantidade());
+        assertEquals(new BigDecimal("600.00"), prata.receita());
+        assertEquals(new BigDecimal("18.00"), prata.frete());
+        assertEquals(new BigDecimal("0.00"), prata.desconto());
+        assertEquals(4L, totais.porTipoProduto().get(TipoProduto.ROUPA).quantidade());
+        assertEquals(new BigDecimal("400.00"), totais.porTipoProduto().get(TipoProduto.MOVEL).receita());
+
+        TotalVendasDTO geralDepois = resumoVendasService.totais().porTipoCliente().get(TipoCliente.PRATA);
+        assertEquals(geralAntes.quantidade() + 2, geralDepois.quantidade());
+        assertEquals(60_000L, jdbcTemplate.queryForObject(RECEITA_PRATA, Long.class, dia));
+
+        // Reconciliar de novo é idempotente
+        resumoVendasService.reconciliar(dia);
+        assertEquals(geralDepois.quantidade(),
+                resumoVendasService.totais().porTipoCliente().get(TipoCliente.PRATA).quantidade());
+        assertEquals(60_000L, jdbcTemplate.queryForObject(RECEITA_PRATA, Long.class, dia));
+        assertEquals(8, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM resumo_vendas WHERE dia = ?", Integer.class, dia));
+    }
+
+    @Test
+    void testReconciliar_UsaODescontoGravadoNoCheckout() {
+        LocalDate dia = LocalDate.of(2021, 3, 11);
+        // 1 x 600 com 10% de desconto na época; pelo catálogo de hoje o valor seria outro
+        Long compraId = inserirCompra(dia, TipoCliente.OURO, "540", "60", "0", "0.9");
+        inserirItem(compraId, 9_103L, 1L, "600", 1, TipoProduto.ELETRONICO);
+
+        TotaisVendasDTO totais = resumoVendasService.reconciliar(dia);
+
+        TotalVendasDTO ouro = totais.porTipoCliente().get(TipoCliente.OURO);
+        assertEquals(new BigDecimal("540.00"), ouro.receita());
+        assertEquals(new BigDecimal("60.00"), ouro.desconto());
+    }
+
+    @Test
+    void testReconciliar_RecusaDiaComCompraForaDoHistorico() {
+        LocalDate dia = LocalDate.of(2021, 3, 12);
+        // resumo_vendas contou 2 compras BRONZE (gravadas por qualquer instância); só 1 chegou ao histórico
+        jdbcTemplate.update("INSERT INTO resumo_vendas (quantidade, receita_centavos, frete_centavos, "
+                + "desconto_centavos, dia, dimensao, chave) VALUES (2, 2000, 0, 0, ?, 'TIPO_CLIENTE', 'BRONZE')", dia);
+        Long compraId = inserirCompra(dia, TipoCliente.BRONZE, "10", "0", "0", "1");
+        inserirItem(compraId, 9_201L, 1L, "10", 1, TipoProduto.LIVRO);
+
+        assertThrows(IllegalStateException.class, () -> resumoVendasService.reconciliar(dia));
+
+        assertEquals(2L, jdbcTemplate.queryForObject("SELECT quantidade FROM resumo_vendas "
+                + "WHERE dia = ? AND dimensao = 'TIPO_CLIENTE' AND chave = 'BRONZE'", Long.class, dia));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM resumo_vendas WHERE dia = ?",
+                Integer.class, dia));
+    }
+
+    @Test
+    void testGravar_SomaODeltaAoQueOutraInstanciaGravou() {
+        LocalDate hoje = LocalDate.now();
+        CarrinhoCheckoutDTO carrinho = new CarrinhoCheckoutDTO(9_301L, 1L, TipoCliente.PRATA,
+                List.of(new ItemCheckoutDTO(1L, 1L, BigDecimal.valueOf(100), 1, TipoProduto.LIVRO)));
+        CustoCompraDTO custo = new CustoCompraDTO(BigDecimal.valueOf(100), BigDecimal.ZERO, BigDecimal.ZERO,
+                BigDecimal.ONE);
+
+        agregados.registrar(carrinho, custo);
+        resumoVendasService.gravar();
+        long gravado = jdbcTemplate.queryForObject(RECEITA_PRATA, Long.class, hoje);
+
+        // Outra instância soma R$ 50 à mesma linha; esta instância registra mais uma compra de R$ 100
+        jdbcTemplate.update("UPDATE resumo_vendas SET receita_centavos = receita_centavos + 5000 "
+                + "WHERE dia = ? AND dimensao = 'TIPO_CLIENTE' AND chave = 'PRATA'", hoje);
+        agregados.registrar(carrinho, custo);
+        resumoVendasService.gravar();
+        assertEquals(gravado + 5_000 + 10_000, jdbcTemplate.queryForObject(RECEITA_PRATA, Long.class, hoje));
+
+        // Sem compras novas não há o que somar
+        resumoVendasService.gravar();
+        assertEquals(gravado + 5_000 + 10_000, jdbcTemplate.queryForObject(RECEITA_PRATA, Long.class, hoje));
+    }
+
+    private Long inserirCompra(LocalDate dia, TipoCliente tipoCliente, String custoProdutos, String desconto,
+            String frete, String fatorDesconto) {
+        jdbcTemplate.update("INSERT INTO compra_finalizada (carrinho_id, cliente_id, transacao_pagamento_id, "
+                        + "tipo_cliente, valor, custo_produtos, desconto, frete, fator_desconto, data) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", 1L, 1L, 1L, tipoCliente.name(),
+                new BigDecimal(custoProdutos).add(new BigDecimal(frete)), new BigDecimal(custoProdutos),
+                new BigDecimal(desconto), new BigDecimal(frete), new BigDecimal(fatorDesconto), dia);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM compra_finalizada", Long.class);
+    }
+
+    private void inserirItem(Long compraId, Long produtoId, Long quantidade, String preco, int peso,
+            TipoProduto tipoProduto) {
+        jdbcTemplate.update("INSERT INTO item_compra_finalizada (compra_finalizada_id, produto_id, quantidade, "
+                + "preco, peso, tipo_produto) VALUES (?, ?, ?, ?, ?, ?)", compraId, produtoId, quantidade,
+                new BigDecimal(preco), peso, tipoProduto.name());
+    }
+}
@@ -0,0 +1,135 @@
+package ecommerce.vendas;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import ecommerce.dto.CarrinhoCheckoutDTO;
+import ecommerce.dto.CustoCompraDTO;
+import ecommerce.dto.ItemCheckoutDTO;
+import ecommerce.entity.TipoCliente;
+import ecommerce.entity.TipoProduto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+class AgregadosVendasTest {
+
+    private static final LocalDate HOJE = LocalDate.of(2024, 5, 10);
+
+    private final AgregadosVendas agregados = new AgregadosVendas(
+            Clock.fixed(Instant.parse("2024-05-10T12:00:00Z"), ZoneOffset.UTC));
+
+    // 2 x R$ 400 (3kg) + 1 x R$ 100 (4kg): 10% de desconto sobre 900 e frete de 10kg a R$ 4/kg
+    private final CarrinhoCheckoutDTO carrinho = new CarrinhoCheckoutDTO(1L, 1L, TipoCliente.BRONZE, List.of(
+            new ItemCheckoutDTO(1L, 2L, BigDecimal.valueOf(400), 3, TipoProduto.ELETRONICO),
+            new ItemCheckoutDTO(2L, 1L, BigDecimal.valueOf(100), 4, TipoProduto.LIVRO)));
+    private final CustoCompraDTO custo = new CustoCompraDTO(BigDecimal.valueOf(810.0), BigDecimal.valueOf(90.0),
+            BigDecimal.valueOf(40), BigDecimal.valueOf(0.90));
+
+    @Test
+    void testRegistrar_TotaisPorTipoDeClienteEProduto() {
+        agregados.registrar(carrinho, custo);
+
+        TotaisVendas dia = agregados.doDia(HOJE);
+        int bronze = TipoCliente.BRONZE.ordinal();
+        assertEquals(1, dia.valor(DimensaoVendas.TIPO_CLIENTE, bronze, TotaisVendas.QUANTIDADE));
+        assertEquals(81_000, dia.valor(DimensaoVendas.TIPO_CLIENTE, bronze, TotaisVendas.RECEITA));
+        assertEquals(4_000, dia.valor(DimensaoVendas.TIPO_CLIENTE, bronze, TotaisVendas.FRETE));
+        assertEquals(9_000, dia.valor(DimensaoVendas.TIPO_CLIENTE, bronze, TotaisVendas.DESCONTO));
+
+        int eletronico = TipoProduto.ELETRONICO.ordinal();
+        int livro = TipoProduto.LIVRO.ordinal();
+        assertEquals(2, dia.valor(DimensaoVendas.TIPO_PRODUTO, eletronico, TotaisVendas.QUANTIDADE));
+        assertEquals(72_000, dia.valor(DimensaoVendas.TIPO_PRODUTO, eletronico, TotaisVendas.RECEITA));
+        assertEquals(2_400, dia.valor(DimensaoVendas.TIPO_PRODUTO, eletronico, TotaisVendas.FRETE));
+        assertEquals(8_000, dia.valor(DimensaoVendas.TIPO_PRODUTO, eletronico, TotaisVendas.DESCONTO));
+        assertEquals(9_000, dia.valor(DimensaoVendas.TIPO_PRODUTO, livro, TotaisVendas.RECEITA));
+        assertEquals(1_600, dia.valor(DimensaoVendas.TIPO_PRODUTO, livro, TotaisVendas.FRETE));
+
+        assertEquals(new BigDecimal("810.00"),
+                agregados.geral().paraDTO(null).porTipoCliente().get(TipoCliente.BRONZE).receita());
+    }
+
+    @Test
+    void testRatear_RestoNoUltimoItem() {
+        assertArrayEquals(new long[] { 33, 33, 34 }, AgregadosVendas.ratear(100, new long[] { 1, 1, 1 }));
+        assertArrayEquals(new long[] { 0, 0, 7 }, AgregadosVendas.ratear(7, new long[] { 0, 0, 0 }));
+    }
+
+    @Test
+    void testRegistrar_ConcorrenteSemPerda() throws InterruptedException {
+        int threads = 8;
+        int compras = 10_000;
+        List<Thread> trabalhadores = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < compras; i++) {
+                    agregados.registrar(carrinho, custo);
+                }
+            });
+            trabalhadores.add(thread);
+            thread.start();
+        }
+        for (Thread thread : trabalhadores) {
+            thread.join();
+        }
+
+        long total = (long) threads * compras;
+        TotaisVendas geral = agregados.geral();
+        assertEquals(total, geral.valor(DimensaoVendas.TIPO_CLIENTE, TipoCliente.BRONZE.ordinal(), TotaisVendas.QUANTIDADE));
+        assertEquals(total * 4_000, geral.valor(DimensaoVendas.TIPO_CLIENTE, TipoCliente.BRONZE.ordinal(), TotaisVendas.FRETE));
+        assertEquals(2 * total, agregados.doDia(HOJE).valor(DimensaoVendas.TIPO_PRODUTO, TipoProduto.ELETRONICO.ordinal(),
+                TotaisVendas.QUANTIDADE));
+    }
+
+    @Test
+    void testParaCadaDiaPendente_ConsomeMarca() {
+        agregados.registrar(carrinho, custo);
+        List<LocalDate> gravados = new ArrayList<>();
+
+        agregados.paraCadaDiaPendente((dia, pendente) -> gravados.add(dia));
+        agregados.paraCadaDiaPendente((dia, pendente) -> gravados.add(dia));
+
+        assertEquals(List.of(HOJE), gravados);
+    }
+
+    @Test
+    void testParaCadaDiaPendente_DeltaSoComOQueNaoFoiGravado() {
+        int bronze = TipoCliente.BRONZE.ordinal();
+        agregados.registrar(carrinho, custo);
+        agregados.paraCadaDiaPendente((dia, pendente) -> {
+            TotaisVendas gravado = new TotaisVendas();
+            gravado.acumular(pendente, 1);
+            // Compra registrada durante a gravação fica no delta
+            agregados.registrar(carrinho, custo);
+            pendente.acumular(gravado, -1);
+        });
+
+        List<TotaisVendas> deltas = new ArrayList<>();
+        agregados.paraCadaDiaPendente((dia, pendente) -> deltas.add(pendente));
+
+        assertEquals(1, deltas.size());
+        assertEquals(1, deltas.get(0).valor(DimensaoVendas.TIPO_CLIENTE, bronze, TotaisVendas.QUANTIDADE));
+        assertEquals(2, agregados.doDia(HOJE).valor(DimensaoVendas.TIPO_CLIENTE, bronze, TotaisVendas.QUANTIDADE));
+    }
+
+    @Test
+    void testSubstituirDia_DescartaDeltaPendente() {
+        agregados.registrar(carrinho, custo);
+        TotaisVendas recalculado = new TotaisVendas();
+
+        agregados.substituirDia(HOJE, agregados.doDia(HOJE), recalculado);
+
+        List<LocalDate> pendentes = new ArrayList<>();
+        agregados.paraCadaDiaPendente((dia, pendente) -> pendentes.add(dia));
+        assertTrue(pendentes.isEmpty());
+        assertSame(recalculado, agregados.doDia(HOJE));
+        assertEquals(0, agregados.geral().valor(DimensaoVendas.TIPO_CLIENTE, TipoCliente.BRONZE.ordinal(),
+                TotaisVendas.QUANTIDADE));
+    }
+}
@@ -0,0 +1,85 @@
+package ecommerce.vendas;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import ecommerce.dto.CarrinhoCheckoutDTO;
+import ecommerce.dto.CustoCompraDTO;
+import ecommerce.dto.ItemCheckoutDTO;
+import ecommerce.entity.TipoCliente;
+import ecommerce.entity.TipoProduto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@SpringBootTest
+class HistoricoComprasTest {
+
+    @Autowired
+    private HistoricoCompras historico;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 2 x R$ 400 (3kg) + 1 x R$ 100 (4kg): 10% de desconto sobre 900 e frete de 10kg a R$ 4/kg
+    private final CustoCompraDTO custo = new CustoCompraDTO(new BigDecimal("810.0"), new BigDecimal("90.0"),
+            BigDecimal.valueOf(40), new BigDecimal("0.9"));
+
+    @Test
+    void testRegistrar_GravaCompraEItensComOCustoDoCheckout() {
+        CarrinhoCheckoutDTO carrinho = new CarrinhoCheckoutDTO(9_001L, 7L, TipoCliente.BRONZE, List.of(
+                new ItemCheckoutDTO(1L, 2L, BigDecimal.valueOf(400), 3, TipoProduto.ELETRONICO),
+                new ItemCheckoutDTO(2L, 1L, BigDecimal.valueOf(100), 4, TipoProduto.LIVRO)));
+
+        historico.registrar(carrinho, custo, 55L);
+        historico.gravar();
+
+        Map<String, Object> compra = jdbcTemplate.queryForMap(
+                "SELECT * FROM compra_finalizada WHERE carrinho_id = ?", 9_001L);
+        assertEquals("BRONZE", compra.get("TIPO_CLIENTE"));
+        assertEquals(55L, ((Number) compra.get("TRANSACAO_PAGAMENTO_ID")).longValue());
+        assertEquals(0, new BigDecimal("850").compareTo((BigDecimal) compra.get("VALOR")));
+        assertEquals(0, new BigDecimal("810").compareTo((BigDecimal) compra.get("CUSTO_PRODUTOS")));
+        assertEquals(0, new BigDecimal("90").compareTo((BigDecimal) compra.get("DESCONTO")));
+        assertEquals(0, new BigDecimal("0.9").compareTo((BigDecimal) compra.get("FATOR_DESCONTO")));
+        assertEquals(LocalDate.now(), ((Date) compra.get("DATA")).toLocalDate());
+
+        List<String> itens = jdbcTemplate.queryForList("SELECT tipo_produto FROM item_compra_finalizada "
+                + "WHERE compra_finalizada_id = ? ORDER BY id", String.class, compra.get("ID"));
+        assertEquals(List.of("ELETRONICO", "LIVRO"), itens);
+    }
+
+    @Test
+    void testGravar_CompraComFalhaNaoDerrubaOLoteEDesisteAposAsTentativas() {
+        double falhasAntes = meterRegistry.get("vendas.historico.falhas").counter().count();
+        // Item sem tipo: a inserção do item falha depois da inserção da compra
+        CarrinhoCheckoutDTO comFalha = new CarrinhoCheckoutDTO(9_002L, 7L, TipoCliente.OURO, List.of(
+                new ItemCheckoutDTO(1L, 1L, BigDecimal.TEN, 1, null)));
+        CarrinhoCheckoutDTO valido = new CarrinhoCheckoutDTO(9_003L, 7L, TipoCliente.OURO, List.of(
+                new ItemCheckoutDTO(1L, 1L, BigDecimal.TEN, 1, TipoProduto.LIVRO)));
+
+        assertDoesNotThrow(() -> historico.registrar(comFalha, custo, 56L));
+        historico.registrar(valido, custo, 57L);
+        // max-tentativas padrão: 5
+        for (int i = 0; i < 5; i++) {
+            historico.gravar();
+        }
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM compra_finalizada WHERE carrinho_id = ?", Integer.class, 9_002L));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM compra_finalizada WHERE carrinho_id = ?", Integer.class, 9_003L));
+        assertEquals(falhasAntes + 1, meterRegistry.get("vendas.historico.falhas").counter().count(), 0.0);
+        assertEquals(0.0, meterRegistry.get("vendas.historico.pendentes").gauge().value(), 0.0);
+    }
+}